@@ -0,0 +1,234 @@
+package corpus;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A parser and evaluator for arithmetic expressions with variables. */
+public class ExpressionParser {
+
+    public static class ParseException extends Exception {
+        private static final long serialVersionUID = 1L;
+        final int position;
+
+        public ParseException(String message, int position) {
+            super(message + " at " + position);
+            this.position = position;
+        }
+    }
+
+    interface Expr {
+        double evaluate(Map<String, Double> variables) throws ParseException;
+    }
+
+    static class Constant implements Expr {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double evaluate(Map<String, Double> variables) {
+            return value;
+        }
+    }
+
+    static class Variable implements Expr {
+        final String name;
+        final int position;
+
+        Variable(String name, int position) {
+            this.name = name;
+            this.position = position;
+        }
+
+        @Override
+        public double evaluate(Map<String, Double> variables) throws ParseException {
+            Double value = variables.get(name);
+            if (value == null) {
+                throw new ParseException("undefined variable " + name, position);
+            }
+            return value;
+        }
+    }
+
+    static class Binary implements Expr {
+        final char operator;
+        final Expr left;
+        final Expr right;
+
+        Binary(char operator, Expr left, Expr right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(Map<String, Double> variables) throws ParseException {
+            double l = left.evaluate(variables);
+            double r = right.evaluate(variables);
+            switch (operator) {
+            case '+':
+                return l + r;
+            case '-':
+                return l - r;
+            case '*':
+                return l * r;
+            case '/':
+                return l / r;
+            case '^':
+                return Math.pow(l, r);
+            default:
+                throw new IllegalStateException("operator " + operator);
+            }
+        }
+    }
+
+    private final String input;
+    private int pos = 0;
+    private @Nullable ParseException lastError;
+
+    public ExpressionParser(String input) {
+        this.input = input;
+    }
+
+    public @Nullable ParseException getLastError() {
+        return lastError;
+    }
+
+    private void skipSpaces() {
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private @Nullable Character peek() {
+        skipSpaces();
+        return pos < input.length() ? input.charAt(pos) : null;
+    }
+
+    public Expr parse() throws ParseException {
+        Expr result = parseSum();
+        if (peek() != null) {
+            throw new ParseException("unexpected input", pos);
+        }
+        return result;
+    }
+
+    public @Nullable Expr tryParse() {
+        try {
+            lastError = null;
+            return parse();
+        } catch (ParseException e) {
+            lastError = e;
+            return null;
+        }
+    }
+
+    private Expr parseSum() throws ParseException {
+        Expr result = parseProduct();
+        for (Character c = peek(); c != null && (c == '+' || c == '-'); c = peek()) {
+            pos++;
+            result = new Binary(c, result, parseProduct());
+        }
+        return result;
+    }
+
+    private Expr parseProduct() throws ParseException {
+        Expr result = parsePower();
+        for (Character c = peek(); c != null && (c == '*' || c == '/'); c = peek()) {
+            pos++;
+            result = new Binary(c, result, parsePower());
+        }
+        return result;
+    }
+
+    private Expr parsePower() throws ParseException {
+        Expr base = parseAtom();
+        Character c = peek();
+        if (c != null && c == '^') {
+            pos++;
+            return new Binary('^', base, parsePower());
+        }
+        return base;
+    }
+
+    private Expr parseAtom() throws ParseException {
+        Character c = peek();
+        if (c == null) {
+            throw new ParseException("unexpected end", pos);
+        }
+        if (c == '(') {
+            pos++;
+            Expr inner = parseSum();
+            Character close = peek();
+            if (close == null || close != ')') {
+                throw new ParseException("missing )", pos);
+            }
+            pos++;
+            return inner;
+        }
+        int start = pos;
+        if (Character.isDigit(c) || c == '.') {
+            while (pos < input.length()
+                    && (Character.isDigit(input.charAt(pos)) || input.charAt(pos) == '.')) {
+                pos++;
+            }
+            try {
+                return new Constant(Double.parseDouble(input.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                throw new ParseException("bad number", start);
+            }
+        }
+        if (Character.isLetter(c)) {
+            while (pos < input.length() && Character.isLetterOrDigit(input.charAt(pos))) {
+                pos++;
+            }
+            return new Variable(input.substring(start, pos), start);
+        }
+        throw new ParseException("unexpected " + c, pos);
+    }
+
+    /** Evaluates a sequence of assignments "name = expression", one per line. */
+    public static Map<String, Double> run(String program) {
+        Map<String, Double> variables = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        Deque<String> lines = new ArrayDeque<>();
+        for (String line : program.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line);
+            }
+        }
+        while (!lines.isEmpty()) {
+            String line = lines.poll();
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                errors.add(line);
+                continue;
+            }
+            String name = line.substring(0, eq).trim();
+            ExpressionParser parser = new ExpressionParser(line.substring(eq + 1));
+            Expr expr = parser.tryParse();
+            if (expr == null) {
+                ParseException error = parser.getLastError();
+                errors.add(name + ": " + (error != null ? error.getMessage() : "?"));
+                continue;
+            }
+            try {
+                variables.put(name, expr.evaluate(variables));
+            } catch (ParseException e) {
+                errors.add(name + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            variables.put("errors", (double) errors.size());
+        }
+        return variables;
+    }
+}
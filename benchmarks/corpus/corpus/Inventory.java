@@ -0,0 +1,191 @@
+package corpus;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** A small inventory with items, stock levels and orders. */
+public class Inventory {
+
+    public static class Item {
+        private final String sku;
+        private final String name;
+        private @Nullable String description;
+        private final long priceInCents;
+
+        public Item(String sku, String name, long priceInCents) {
+            this.sku = sku;
+            this.name = name;
+            this.priceInCents = priceInCents;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public @Nullable String getDescription() {
+            return description;
+        }
+
+        public void setDescription(@Nullable String description) {
+            this.description = description;
+        }
+
+        public long getPriceInCents() {
+            return priceInCents;
+        }
+
+        @Override
+        public String toString() {
+            String d = description;
+            return sku + " " + name + (d == null ? "" : " (" + d + ")");
+        }
+    }
+
+    public static class OrderLine {
+        final Item item;
+        final int quantity;
+
+        OrderLine(Item item, int quantity) {
+            this.item = item;
+            this.quantity = quantity;
+        }
+    }
+
+    public static class OutOfStockException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public OutOfStockException(String message) {
+            super(message);
+        }
+    }
+
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<String, Integer> stock = new TreeMap<>();
+    private final List<List<OrderLine>> orders = new ArrayList<>();
+
+    public void add(Item item, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("negative quantity: " + quantity);
+        }
+        items.put(item.getSku(), item);
+        Integer current = stock.get(item.getSku());
+        stock.put(item.getSku(), current == null ? quantity : current + quantity);
+    }
+
+    public @Nullable Item find(String sku) {
+        return items.get(sku);
+    }
+
+    public int stockOf(String sku) {
+        Integer current = stock.get(sku);
+        if (current == null) {
+            return 0;
+        }
+        return current;
+    }
+
+    public List<Item> search(String text) {
+        List<Item> result = new ArrayList<>();
+        String lower = text.toLowerCase();
+        for (Item item : items.values()) {
+            String description = item.getDescription();
+            if (item.getName().toLowerCase().contains(lower)
+                    || (description != null && description.toLowerCase().contains(lower))) {
+                result.add(item);
+            }
+        }
+        Collections.sort(result, new Comparator<Item>() {
+            @Override
+            public int compare(Item a, Item b) {
+                int byName = a.getName().compareTo(b.getName());
+                return byName != 0 ? byName : a.getSku().compareTo(b.getSku());
+            }
+        });
+        return result;
+    }
+
+    public long order(Map<String, Integer> request) throws OutOfStockException {
+        List<OrderLine> lines = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String, Integer> entry : request.entrySet()) {
+            Item item = find(entry.getKey());
+            if (item == null) {
+                throw new IllegalArgumentException("unknown item: " + entry.getKey());
+            }
+            int quantity = entry.getValue();
+            int available = stockOf(item.getSku());
+            if (available < quantity) {
+                throw new OutOfStockException(item.getName() + ": " + available + " < " + quantity);
+            }
+            lines.add(new OrderLine(item, quantity));
+            total += quantity * item.getPriceInCents();
+        }
+        for (OrderLine line : lines) {
+            stock.put(line.item.getSku(), stockOf(line.item.getSku()) - line.quantity);
+        }
+        orders.add(lines);
+        return total;
+    }
+
+    public @Nullable String tryOrder(Map<String, Integer> request) {
+        try {
+            long total = order(request);
+            return String.format("%d.%02d", total / 100, total % 100);
+        } catch (OutOfStockException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            String message = e.getMessage();
+            return message == null ? "error" : message;
+        } finally {
+            pruneEmpty();
+        }
+    }
+
+    private void pruneEmpty() {
+        Iterator<Map.Entry<String, Integer>> it = stock.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            if (entry.getValue() == 0) {
+                it.remove();
+                items.remove(entry.getKey());
+            }
+        }
+    }
+
+    public Map<String, Long> revenueByItem() {
+        Map<String, Long> result = new TreeMap<>();
+        for (List<OrderLine> order : orders) {
+            for (OrderLine line : order) {
+                Long previous = result.get(line.item.getSku());
+                long revenue = line.quantity * line.item.getPriceInCents();
+                result.put(line.item.getSku(), previous == null ? revenue : previous + revenue);
+            }
+        }
+        return result;
+    }
+
+    public @Nullable Item bestSeller() {
+        @Nullable Item best = null;
+        long bestRevenue = -1;
+        for (Map.Entry<String, Long> entry : revenueByItem().entrySet()) {
+            Item item = items.get(entry.getKey());
+            if (item != null && entry.getValue() > bestRevenue) {
+                best = item;
+                bestRevenue = entry.getValue();
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,120 @@
+package org.checkerframework.benchmarks;
+
+import org.checkerframework.checker.nullness.AbstractNullnessFbcChecker;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
+import org.checkerframework.framework.type.TypeHierarchy;
+import org.checkerframework.framework.util.defaults.QualifierDefaults;
+import org.checkerframework.javacutil.Pair;
+import org.checkerframework.javacutil.TreeUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.Types;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+
+/**
+ * Measures operations on the annotated types of the Nullness Checker:
+ * {@link org.checkerframework.framework.type.DefaultTypeHierarchy#isSubtype},
+ * {@link AnnotatedTypeMirror#deepCopy()} and
+ * {@link QualifierDefaults#annotate(Element, AnnotatedTypeMirror)}.
+ *
+ * <p>
+ * The types are those of the variables of the corpus.  The subtype checks
+ * are the ones performed for variable initializers, from the type of the
+ * initializer to the type of the variable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AnnotatedTypeBenchmark {
+
+    private GenericAnnotatedTypeFactory<?, ?, ?, ?> factory;
+    private TypeHierarchy typeHierarchy;
+
+    /** The types of the variables of the corpus. */
+    private final List<AnnotatedTypeMirror> variableTypes = new ArrayList<>();
+
+    /** The elements of the variables of the corpus. */
+    private final List<Element> variableElements = new ArrayList<>();
+
+    /** Initializer types and the types of the variables they initialize. */
+    private final List<Pair<AnnotatedTypeMirror, AnnotatedTypeMirror>> assignments = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkEnvironment corpus = BenchmarkEnvironment.create();
+        AbstractNullnessFbcChecker checker = corpus.createChecker(AbstractNullnessFbcChecker.class);
+        factory = checker.getTypeFactory();
+        typeHierarchy = factory.getTypeHierarchy();
+        final Types types = corpus.env.getTypeUtils();
+
+        for (CompilationUnitTree root : corpus.roots) {
+            factory.setRoot(root);
+            new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitVariable(VariableTree node, Void p) {
+                    Element elt = TreeUtils.elementFromDeclaration(node);
+                    AnnotatedTypeMirror varType = factory.getAnnotatedType(node);
+                    variableElements.add(elt);
+                    variableTypes.add(varType);
+                    if (node.getInitializer() != null) {
+                        AnnotatedTypeMirror valueType = factory.getAnnotatedType(node.getInitializer());
+                        if (valueType.getKind() != TypeKind.NULL
+                                && types.isSubtype(valueType.getUnderlyingType(), varType.getUnderlyingType())) {
+                            assignments.add(Pair.of(valueType, varType));
+                        }
+                    }
+                    return super.visitVariable(node, p);
+                }
+            }.scan(root, null);
+        }
+    }
+
+    @Benchmark
+    public void isSubtype(Blackhole bh) {
+        for (Pair<AnnotatedTypeMirror, AnnotatedTypeMirror> assignment : assignments) {
+            bh.consume(typeHierarchy.isSubtype(assignment.first, assignment.second));
+        }
+    }
+
+    @Benchmark
+    public void deepCopy(Blackhole bh) {
+        for (AnnotatedTypeMirror type : variableTypes) {
+            bh.consume(type.deepCopy());
+        }
+    }
+
+    @Benchmark
+    public void annotateDefaults(Blackhole bh) {
+        QualifierDefaults defaults = factory.getQualifierDefaults();
+        for (Element elt : variableElements) {
+            AnnotatedTypeMirror type = AnnotatedTypeMirror.createType(elt.asType(), factory, true);
+            defaults.annotate(elt, type);
+            bh.consume(type);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.checkerframework.benchmarks;
+
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.dataflow.cfg.UnderlyingAST.CFGMethod;
+import org.checkerframework.javacutil.ErrorReporter;
+import org.checkerframework.javacutil.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.api.JavacTaskImpl;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+
+/**
+ * The benchmark corpus, parsed and attributed by javac.
+ *
+ * <p>
+ * The compilation is kept open, so that control flow graphs can be built,
+ * and checkers can be run, on its trees.  The corpus is the directory given
+ * by the {@code checkerframework.benchmarks.corpus} system property; the
+ * annotated JDK, if any, is given by {@code checkerframework.benchmarks.jdk}.
+ * The Ant target {@code benchmarks} sets both properties.
+ */
+public class BenchmarkEnvironment {
+
+    public static final String CORPUS_PROPERTY = "checkerframework.benchmarks.corpus";
+    public static final String JDK_PROPERTY = "checkerframework.benchmarks.jdk";
+
+    public final ProcessingEnvironment env;
+    public final List<CompilationUnitTree> roots;
+
+    private BenchmarkEnvironment(ProcessingEnvironment env, List<CompilationUnitTree> roots) {
+        this.env = env;
+        this.roots = roots;
+    }
+
+    /**
+     * Parses and attributes the corpus.
+     *
+     * @param options additional javac options, such as {@code -A} options
+     *        for the checkers that are created later
+     */
+    public static BenchmarkEnvironment create(String... options) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        Iterable<? extends JavaFileObject> files = fileManager.getJavaFileObjectsFromFiles(corpusFiles());
+
+        List<String> javacOptions = javacOptions(options);
+        javacOptions.add("-proc:none");
+        JavacTask task = (JavacTask) compiler.getTask(null, fileManager, diagnostics,
+                javacOptions, null, files);
+        List<CompilationUnitTree> roots = new ArrayList<>();
+        for (CompilationUnitTree root : task.parse()) {
+            roots.add(root);
+        }
+        task.analyze();
+
+        ProcessingEnvironment env = JavacProcessingEnvironment.instance(((JavacTaskImpl) task).getContext());
+        return new BenchmarkEnvironment(env, Collections.unmodifiableList(roots));
+    }
+
+    /** Returns the source files of the corpus, sorted by name. */
+    public static List<File> corpusFiles() {
+        String corpus = System.getProperty(CORPUS_PROPERTY, "corpus");
+        List<File> result = new ArrayList<>();
+        collectSources(new File(corpus), result);
+        if (result.isEmpty()) {
+            ErrorReporter.errorAbort("BenchmarkEnvironment: no Java files in corpus " + corpus);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static void collectSources(File dir, List<File> result) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectSources(file, result);
+            } else if (file.getName().endsWith(".java")) {
+                result.add(file);
+            }
+        }
+    }
+
+    /**
+     * Returns the javac options for compiling the corpus, followed by
+     * {@code options}.
+     */
+    public static List<String> javacOptions(String... options) {
+        List<String> result = new ArrayList<>();
+        String jdk = System.getProperty(JDK_PROPERTY);
+        if (jdk != null && new File(jdk).isFile()) {
+            result.add("-Xbootclasspath/p:" + jdk);
+        }
+        result.add("-Xlint:-options");
+        result.addAll(Arrays.asList(options));
+        return result;
+    }
+
+    /**
+     * Creates a checker for this compilation and initializes it (and its
+     * subcheckers) as the compiler would before type-checking.
+     */
+    public <C extends BaseTypeChecker> C createChecker(Class<C> checkerClass) {
+        C checker;
+        try {
+            checker = checkerClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            ErrorReporter.errorAbort("BenchmarkEnvironment: could not create " + checkerClass, e);
+            return null; // dead code
+        }
+        checker.init(env);
+        checker.typeProcessingStart();
+        return checker;
+    }
+
+    /**
+     * Returns the methods with a body in the corpus, including the methods
+     * of nested and anonymous classes, together with their compilation unit.
+     */
+    public List<Pair<CompilationUnitTree, UnderlyingAST>> methods() {
+        final List<Pair<CompilationUnitTree, UnderlyingAST>> result = new ArrayList<>();
+        for (final CompilationUnitTree root : roots) {
+            new TreeScanner<Void, ClassTree>() {
+                @Override
+                public Void visitClass(ClassTree node, ClassTree p) {
+                    return super.visitClass(node, node);
+                }
+
+                @Override
+                public Void visitMethod(MethodTree node, ClassTree p) {
+                    if (node.getBody() != null) {
+                        result.add(Pair.<CompilationUnitTree, UnderlyingAST>of(root,
+                                new CFGMethod(node, p)));
+                    }
+                    return super.visitMethod(node, p);
+                }
+
+                @Override
+                public Void visitLambdaExpression(LambdaExpressionTree node, ClassTree p) {
+                    // Lambda bodies are part of the graph of their method.
+                    return null;
+                }
+            }.scan(root, null);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package org.checkerframework.benchmarks;
+
+import org.checkerframework.dataflow.cfg.CFGBuilder;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.javacutil.Pair;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sun.source.tree.CompilationUnitTree;
+
+/**
+ * Measures {@link CFGBuilder#run}: building the control flow graphs of all
+ * methods of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CFGBuilderBenchmark {
+
+    private BenchmarkEnvironment corpus;
+    private List<Pair<CompilationUnitTree, UnderlyingAST>> methods;
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = BenchmarkEnvironment.create();
+        methods = corpus.methods();
+    }
+
+    @Benchmark
+    public void buildCFGs(Blackhole bh) {
+        for (Pair<CompilationUnitTree, UnderlyingAST> method : methods) {
+            bh.consume(new CFGBuilder(false, false).run(method.first, corpus.env, method.second));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.checkerframework.benchmarks;
+
+import org.checkerframework.checker.interning.InterningChecker;
+import org.checkerframework.checker.nullness.AbstractNullnessFbcChecker;
+import org.checkerframework.checker.nullness.KeyForAnnotatedTypeFactory;
+import org.checkerframework.checker.nullness.KeyForSubchecker;
+import org.checkerframework.checker.nullness.NullnessAnalysis;
+import org.checkerframework.checker.nullness.NullnessAnnotatedTypeFactory;
+import org.checkerframework.checker.nullness.NullnessValue;
+import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.framework.flow.CFAnalysis;
+import org.checkerframework.framework.flow.CFCFGBuilder;
+import org.checkerframework.framework.flow.CFValue;
+import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
+import org.checkerframework.javacutil.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.lang.model.element.VariableElement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sun.source.tree.CompilationUnitTree;
+
+/**
+ * Measures {@link org.checkerframework.dataflow.analysis.Analysis#performAnalysis}
+ * with {@link CFAnalysis} (for the Interning Checker) and with
+ * {@link NullnessAnalysis}, on the control flow graphs of all methods of the
+ * corpus.  The graphs are built once, during setup.
+ *
+ * <p>
+ * The analyses run outside of the type-checking of a class, so they do not
+ * see the results of the analyses of enclosing code; field values start out
+ * empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FlowAnalysisBenchmark {
+
+    private InterningChecker interningChecker;
+    private BaseAnnotatedTypeFactory interningFactory;
+    private Map<CompilationUnitTree, List<ControlFlowGraph>> interningCFGs;
+
+    private AbstractNullnessFbcChecker nullnessChecker;
+    private NullnessAnnotatedTypeFactory nullnessFactory;
+    private KeyForAnnotatedTypeFactory keyForFactory;
+    private Map<CompilationUnitTree, List<ControlFlowGraph>> nullnessCFGs;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkEnvironment corpus = BenchmarkEnvironment.create();
+        List<Pair<CompilationUnitTree, UnderlyingAST>> methods = corpus.methods();
+
+        interningChecker = corpus.createChecker(InterningChecker.class);
+        interningFactory = (BaseAnnotatedTypeFactory) interningChecker.getTypeFactory();
+        interningCFGs = buildCFGs(corpus, methods, interningChecker, interningFactory);
+
+        nullnessChecker = corpus.createChecker(AbstractNullnessFbcChecker.class);
+        nullnessFactory = (NullnessAnnotatedTypeFactory) nullnessChecker.getTypeFactory();
+        keyForFactory = nullnessChecker.getTypeFactoryOfSubchecker(KeyForSubchecker.class);
+        nullnessCFGs = buildCFGs(corpus, methods, nullnessChecker, nullnessFactory);
+    }
+
+    private static Map<CompilationUnitTree, List<ControlFlowGraph>> buildCFGs(
+            BenchmarkEnvironment corpus, List<Pair<CompilationUnitTree, UnderlyingAST>> methods,
+            BaseTypeChecker checker, GenericAnnotatedTypeFactory<?, ?, ?, ?> factory) {
+        Map<CompilationUnitTree, List<ControlFlowGraph>> result = new LinkedHashMap<>();
+        for (Pair<CompilationUnitTree, UnderlyingAST> method : methods) {
+            List<ControlFlowGraph> cfgs = result.get(method.first);
+            if (cfgs == null) {
+                cfgs = new ArrayList<>();
+                result.put(method.first, cfgs);
+            }
+            factory.setRoot(method.first);
+            cfgs.add(new CFCFGBuilder(checker, factory).run(method.first, corpus.env, method.second));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void cfAnalysis(Blackhole bh) {
+        List<Pair<VariableElement, CFValue>> fieldValues = Collections.emptyList();
+        for (Map.Entry<CompilationUnitTree, List<ControlFlowGraph>> unit : interningCFGs.entrySet()) {
+            interningFactory.setRoot(unit.getKey());
+            for (ControlFlowGraph cfg : unit.getValue()) {
+                CFAnalysis analysis = new CFAnalysis(interningChecker, interningFactory, fieldValues);
+                analysis.performAnalysis(cfg);
+                bh.consume(analysis.getRegularExitStore());
+            }
+        }
+    }
+
+    @Benchmark
+    public void nullnessAnalysis(Blackhole bh) {
+        List<Pair<VariableElement, NullnessValue>> fieldValues = Collections.emptyList();
+        for (Map.Entry<CompilationUnitTree, List<ControlFlowGraph>> unit : nullnessCFGs.entrySet()) {
+            nullnessFactory.setRoot(unit.getKey());
+            keyForFactory.setRoot(unit.getKey());
+            for (ControlFlowGraph cfg : unit.getValue()) {
+                NullnessAnalysis analysis = new NullnessAnalysis(nullnessChecker, nullnessFactory, fieldValues);
+                analysis.performAnalysis(cfg);
+                bh.consume(analysis.getRegularExitStore());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.checkerframework.benchmarks;
+
+import org.checkerframework.checker.nullness.NullnessChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete run of the Nullness Checker over the corpus: a
+ * javac compilation with {@code -proc:only} and the checker as annotation
+ * processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NullnessCheckerBenchmark {
+
+    /**
+     * Additional options for the checker, separated by spaces; for
+     * example {@code -AsubtypeCache}.
+     */
+    @Param({""})
+    public String checkerOptions;
+
+    private List<File> files;
+    private List<String> options;
+
+    @Setup
+    public void setup() {
+        files = BenchmarkEnvironment.corpusFiles();
+        options = BenchmarkEnvironment.javacOptions("-proc:only",
+                "-processor", NullnessChecker.class.getName());
+        for (String option : checkerOptions.split(" ")) {
+            if (!option.isEmpty()) {
+                options.add(option);
+            }
+        }
+    }
+
+    /**
+     * @return True if the corpus type-checks; the corpus is not required to
+     *         be free of nullness errors
+     */
+    @Benchmark
+    public boolean checkCorpus() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            return compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.checkerframework.benchmarks;
+
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.framework.stub.StubParser;
+import org.checkerframework.framework.type.AnnotatedTypeFactory;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link StubParser#parse} of the {@code jdk.astub} file of a
+ * checker.  The stub file is read into memory during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StubParserBenchmark {
+
+    /** The checker whose {@code jdk.astub} is parsed. */
+    @Param({"org.checkerframework.checker.interning.InterningChecker",
+            "org.checkerframework.checker.lock.LockChecker",
+            "org.checkerframework.checker.signature.SignatureChecker"})
+    public String checkerName;
+
+    private BenchmarkEnvironment corpus;
+    private AnnotatedTypeFactory factory;
+    private byte[] stub;
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException {
+        corpus = BenchmarkEnvironment.create();
+        Class<? extends BaseTypeChecker> checkerClass =
+                Class.forName(checkerName).asSubclass(BaseTypeChecker.class);
+        factory = corpus.createChecker(checkerClass).getTypeFactory();
+
+        try (InputStream in = checkerClass.getResourceAsStream("jdk.astub")) {
+            if (in == null) {
+                throw new IOException("No jdk.astub for " + checkerName);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            stub = out.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        Map<Element, AnnotatedTypeMirror> atypes = new HashMap<>();
+        Map<String, Set<AnnotationMirror>> declAnnos = new HashMap<>();
+        StubParser parser = new StubParser("jdk.astub", new ByteArrayInputStream(stub),
+                factory, corpus.env);
+        parser.parse(atypes, declAnnos);
+        bh.consume(atypes);
+        bh.consume(declAnnos);
+    }
+}
@@ -18,11 +18,11 @@ import org.checkerframework.framework.type.treeannotator.ListTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.TreeAnnotator;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.OverrideIndex;
 import org.checkerframework.javacutil.TypesUtils;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
-import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
@@ -39,11 +39,15 @@ public class GuiEffectTypeFactory extends BaseAnnotatedTypeFactory {
 
     protected final boolean debugSpew;
 
+    /** The methods overridden by a method; shared by all checkers. */
+    protected final OverrideIndex overrideIndex;
+
     public GuiEffectTypeFactory(BaseTypeChecker checker, boolean spew) {
         // use true for flow inference
         super(checker, false);
 
         debugSpew = spew;
+        overrideIndex = OverrideIndex.instance(processingEnv);
         this.postInit();
     }
 
@@ -53,24 +57,10 @@ public class GuiEffectTypeFactory extends BaseAnnotatedTypeFactory {
             if (debugSpew)
                 System.err.println("Searching for overridden methods from " + parentType);
 
-            TypeElement overriderClass = (TypeElement)overrider.getEnclosingElement();
             TypeElement elem = (TypeElement)((DeclaredType)parentType).asElement();
-            if (debugSpew)
-                System.err.println("necessary TypeElements acquired: " + elem);
-
-            for (Element e : elem.getEnclosedElements()) {
-                if (debugSpew)
-                    System.err.println("Considering element "+e);
-                if (e.getKind() == ElementKind.METHOD || e.getKind() == ElementKind.CONSTRUCTOR) {
-                    ExecutableElement ex = (ExecutableElement)e;
-                    boolean overrides = elements.overrides(overrider, ex, overriderClass);
-                    if (overrides) {
-                        return ex;
-                    }
-                }
-            }
-            if (debugSpew)
-                System.err.println("Done considering elements of " + parentType);
+            // The override index computes the overridden methods of all
+            // supertypes at once and shares them with other checkers.
+            return overrideIndex.overriddenMethod(overrider, elem);
         }
         return null;
     }
@@ -38,6 +38,6 @@ import java.util.Locale;
  * </ol>
  */
 @TypeQualifiers( {LocalizableKey.class, PropertyKey.class, UnknownPropertyKey.class} )
-@SupportedOptions( {"propfiles", "bundlenames"} )
+@SupportedOptions( {"propfiles", "bundlenames", "propindex"} )
 public class LocalizableKeyChecker extends PropertyKeyChecker {
 }
@@ -1,7 +1,9 @@
 package org.checkerframework.checker.i18nformatter;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
@@ -11,12 +13,14 @@ import java.util.Properties;
 import java.util.ResourceBundle;
 
 import javax.lang.model.element.AnnotationMirror;
+import javax.tools.Diagnostic.Kind;
 
 import org.checkerframework.checker.i18nformatter.qual.I18nConversionCategory;
 import org.checkerframework.checker.i18nformatter.qual.I18nFormat;
 import org.checkerframework.checker.i18nformatter.qual.I18nFormatBottom;
 import org.checkerframework.checker.i18nformatter.qual.I18nFormatFor;
 import org.checkerframework.checker.i18nformatter.qual.I18nInvalidFormat;
+import org.checkerframework.checker.propkey.PropertyKeyIndex;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.framework.flow.CFStore;
 import org.checkerframework.framework.flow.CFValue;
@@ -57,6 +61,13 @@ public class I18nFormatterAnnotatedTypeFactory extends
 
     public final Map<String, String> translations;
 
+    /** The index of the translations, if the -Apropindex option is given. */
+    private PropertyKeyIndex translationIndex;
+
+    /** The format categories of the translations, by key. */
+    private final Map<String, I18nConversionCategory[]> translationCategories =
+            new HashMap<String, I18nConversionCategory[]>();
+
     protected final I18nFormatterTreeUtil treeUtil;
 
     public I18nFormatterAnnotatedTypeFactory(BaseTypeChecker checker) {
@@ -73,7 +84,92 @@ public class I18nFormatterAnnotatedTypeFactory extends
         this.postInit();
     }
 
+    /**
+     * Returns the format categories of the translation of {@code key}, which
+     * must be a key of {@link #translations}.  The categories are taken from
+     * the index given by -Apropindex, if possible, and are only computed once
+     * otherwise.
+     *
+     * @throws IllegalArgumentException if the translation is not a valid format
+     */
+    public I18nConversionCategory[] getTranslationCategories(String key) {
+        I18nConversionCategory[] result = translationCategories.get(key);
+        if (result == null) {
+            String indexed = translationIndex == null ? null : translationIndex.getCategories(key);
+            if (indexed != null) {
+                result = decodeCategories(indexed);
+            } else {
+                result = I18nFormatUtil.formatParameterCategories(translations.get(key));
+            }
+            translationCategories.put(key, result);
+        }
+        return result;
+    }
+
+    private static String encodeCategories(I18nConversionCategory[] categories) {
+        StringBuilder sb = new StringBuilder();
+        for (I18nConversionCategory category : categories) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(category.name());
+        }
+        return sb.toString();
+    }
+
+    private static I18nConversionCategory[] decodeCategories(String categories) {
+        if (categories.isEmpty()) {
+            return new I18nConversionCategory[0];
+        }
+        String[] names = categories.split(",");
+        I18nConversionCategory[] result = new I18nConversionCategory[names.length];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = I18nConversionCategory.valueOf(names[i]);
+        }
+        return result;
+    }
+
     private Map<String, String> buildLookup() {
+        File indexFile = null;
+        String sources = null;
+        if (checker.hasOption("propindex")) {
+            indexFile = new File(checker.getOption("propindex"));
+            sources = PropertyKeyIndex.describeSources(checker.getOption("propfiles"),
+                    checker.getOption("bundlenames"));
+            try {
+                translationIndex = PropertyKeyIndex.open(indexFile, sources);
+                if (translationIndex != null) {
+                    return translationIndex.asMap();
+                }
+            } catch (IOException e) {
+                checker.message(Kind.WARNING, "Couldn't read the property key index: " + e);
+            }
+        }
+
+        Map<String, String> result = loadTranslations();
+
+        if (indexFile != null) {
+            // Record the parsed categories of all valid formats.
+            Map<String, String> categories = new HashMap<String, String>();
+            for (Map.Entry<String, String> entry : result.entrySet()) {
+                try {
+                    categories.put(entry.getKey(),
+                            encodeCategories(I18nFormatUtil.formatParameterCategories(entry.getValue())));
+                } catch (IllegalArgumentException e) {
+                    // The format is invalid; it is parsed again when it is used.
+                }
+            }
+            try {
+                PropertyKeyIndex.write(indexFile, sources, result, categories);
+            } catch (IOException e) {
+                checker.message(Kind.WARNING, "Couldn't write the property key index: " + e);
+            }
+        }
+
+        return result;
+    }
+
+    private Map<String, String> loadTranslations() {
         Map<String, String> result = new HashMap<String, String>();
 
         if (checker.hasOption("propfiles")) {
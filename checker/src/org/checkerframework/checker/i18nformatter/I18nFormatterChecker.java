@@ -22,6 +22,6 @@ import org.checkerframework.framework.qual.TypeQualifiers;
  */
 @TypeQualifiers({ I18nUnknownFormat.class, I18nFormat.class, I18nFormatBottom.class, I18nInvalidFormat.class,
         I18nFormatFor.class})
-@SupportedOptions( {"bundlenames", "propfiles"} )
+@SupportedOptions( {"bundlenames", "propfiles", "propindex"} )
 public class I18nFormatterChecker extends BaseTypeChecker {
 }
@@ -201,8 +201,7 @@ public class I18nFormatterTreeUtil {
         if (firstParam != null && (firstParam instanceof StringLiteralNode)) {
             String s = ((StringLiteralNode) firstParam).getValue();
             if (translations.containsKey(s)) {
-                String value = translations.get(s);
-                ret = new ResultImpl<I18nConversionCategory[]>(I18nFormatUtil.formatParameterCategories(value),
+                ret = new ResultImpl<I18nConversionCategory[]>(atypeFactory.getTranslationCategories(s),
                         node.getTree());
             }
         }
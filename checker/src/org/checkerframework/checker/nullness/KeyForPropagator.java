@@ -5,7 +5,7 @@ import org.checkerframework.framework.type.AnnotatedTypeMirror;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
 import org.checkerframework.framework.type.visitor.AnnotatedTypeMerger;
 import org.checkerframework.framework.util.AnnotationBuilder;
-import org.checkerframework.framework.util.TypeArgumentMapper;
+import org.checkerframework.framework.util.SupertypePaths;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.ErrorReporter;
 import org.checkerframework.javacutil.Pair;
@@ -17,7 +17,6 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeKind;
-import javax.lang.model.util.Types;
 
 
 /**
@@ -81,7 +80,6 @@ public class KeyForPropagator {
                           PropagationDirection direction, final AnnotatedTypeFactory typeFactory) {
         final TypeElement subtypeElement = (TypeElement) subtype.getUnderlyingType().asElement();
         final TypeElement supertypeElement = (TypeElement) supertype.getUnderlyingType().asElement();
-        final Types types = typeFactory.getProcessingEnv().getTypeUtils();
 
         //Note: The right hand side of this or expression will cover raw types
         if (subtype.getTypeArguments().isEmpty()) {
@@ -99,7 +97,8 @@ public class KeyForPropagator {
 
 
         Set<Pair<Integer, Integer>> typeParamMappings =
-             TypeArgumentMapper.mapTypeArgumentIndices(subtypeElement, supertypeElement, types);
+             SupertypePaths.instance(typeFactory.getProcessingEnv())
+                     .mapTypeArgumentIndices(subtypeElement, supertypeElement);
 
         KeyForPropagationMerger merger = new KeyForPropagationMerger(typeFactory.getProcessingEnv());
 
@@ -1,7 +1,9 @@
 package org.checkerframework.checker.propkey;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.util.*;
@@ -136,28 +138,50 @@ public class PropertyKeyAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
     }
 
     private Set<String> buildLookupKeys() {
-        Set<String> result = new HashSet<String>();
+        File indexFile = null;
+        String sources = null;
+        if (checker.hasOption("propindex")) {
+            indexFile = new File(checker.getOption("propindex"));
+            sources = PropertyKeyIndex.describeSources(checker.getOption("propfiles"),
+                    checker.getOption("bundlenames"));
+            try {
+                PropertyKeyIndex index = PropertyKeyIndex.open(indexFile, sources);
+                if (index != null) {
+                    return index.keySet();
+                }
+            } catch (IOException e) {
+                checker.message(Kind.WARNING, "Couldn't read the property key index: " + e);
+            }
+        }
+
+        Map<String, String> result = new HashMap<String, String>();
 
         if (checker.hasOption("propfiles")) {
-            result.addAll( keysOfPropertyFiles(checker.getOption("propfiles")) );
+            valuesOfPropertyFiles(checker.getOption("propfiles"), result);
         }
         if (checker.hasOption("bundlenames")) {
-            result.addAll( keysOfResourceBundle(checker.getOption("bundlenames")) );
+            valuesOfResourceBundle(checker.getOption("bundlenames"), result);
+        }
+
+        if (indexFile != null) {
+            try {
+                PropertyKeyIndex.write(indexFile, sources, result, Collections.<String, String>emptyMap());
+            } catch (IOException e) {
+                checker.message(Kind.WARNING, "Couldn't write the property key index: " + e);
+            }
         }
 
-        return result;
+        return result.keySet();
     }
 
-    private Set<String> keysOfPropertyFiles(String names) {
+    private void valuesOfPropertyFiles(String names, Map<String, String> result) {
         String[] namesArr = names.split(":");
 
         if (namesArr == null) {
             checker.message(Kind.WARNING, "Couldn't parse the properties files: <" + names + ">");
-            return Collections.emptySet();
+            return;
         }
 
-        Set<String> result = new HashSet<String>();
-
         for (String name : namesArr) {
             try {
                 Properties prop = new Properties();
@@ -192,7 +216,9 @@ public class PropertyKeyAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
                 }
 
                 prop.load(in);
-                result.addAll(prop.stringPropertyNames());
+                for (String key : prop.stringPropertyNames()) {
+                    result.put(key, prop.getProperty(key));
+                }
             } catch (Exception e) {
                 // TODO: is there a nicer way to report messages, that are not
                 // connected to an AST node?
@@ -201,20 +227,16 @@ public class PropertyKeyAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
                 e.printStackTrace();
             }
         }
-
-        return result;
     }
 
-    private Set<String> keysOfResourceBundle(String bundleNames) {
+    private void valuesOfResourceBundle(String bundleNames, Map<String, String> result) {
         String[] namesArr = bundleNames.split(":");
 
         if (namesArr == null) {
             checker.message(Kind.WARNING, "Couldn't parse the resource bundles: <" + bundleNames + ">");
-            return Collections.emptySet();
+            return;
         }
 
-        Set<String> result = new HashSet<String>();
-
         for (String bundleName : namesArr) {
             ResourceBundle bundle = ResourceBundle.getBundle(bundleName);
             if (bundle == null) {
@@ -223,9 +245,11 @@ public class PropertyKeyAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
                 continue;
             }
 
-            result.addAll(bundle.keySet());
+            for (String key : bundle.keySet()) {
+                Object value = bundle.getObject(key);
+                result.put(key, value instanceof String ? (String) value : String.valueOf(value));
+            }
         }
-        return result;
     }
 
     @Override
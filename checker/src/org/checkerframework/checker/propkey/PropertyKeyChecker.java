@@ -40,6 +40,6 @@ import org.checkerframework.framework.source.SupportedOptions;
  */
 // Subclasses need something similar to this:
 @TypeQualifiers( {PropertyKey.class, UnknownPropertyKey.class, Bottom.class} )
-@SupportedOptions( {"propfiles", "bundlenames"} )
+@SupportedOptions( {"propfiles", "bundlenames", "propindex"} )
 public class PropertyKeyChecker extends BaseTypeChecker {
 }
@@ -0,0 +1,421 @@
+package org.checkerframework.checker.propkey;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A prebuilt index of the keys and values of the property files and
+ * resource bundles given by the {@code propfiles} and {@code bundlenames}
+ * options.
+ *
+ * <p>
+ * Loading tens of thousands of keys with {@link java.util.Properties#load}
+ * and {@link java.util.ResourceBundle#getBundle} in every compilation is
+ * expensive.  With {@code -Apropindex=file}, the PropertyKeyChecker and the
+ * I18nFormatterChecker write the keys they loaded to {@code file}, sorted,
+ * and later compilations with the same {@code propfiles} and
+ * {@code bundlenames} memory-map the file and look keys up by binary search
+ * instead of loading the resources again.
+ * Besides the value of a key, the index can hold the pre-parsed format
+ * argument categories of the value, as computed by the I18nFormatterChecker.
+ *
+ * <p>
+ * The index records the options it was built from, the property files and
+ * the resources that make up each resource bundle, together with their
+ * modification times; if any of them differ, the index is rebuilt.
+ */
+public class PropertyKeyIndex {
+
+    private static final int MAGIC = 0x43464b49; // "CFKI"
+    private static final int VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The indexes mapped in this JVM, by canonical file name.  They are
+     * reused across compilations while the file is not modified.
+     */
+    private static final Map<String, PropertyKeyIndex> mappedIndexes = new HashMap<>();
+
+    private final long lastModified;
+    private final String sources;
+    private final ByteBuffer buffer;
+
+    /** The number of keys in the index. */
+    private final int size;
+
+    /** The position of the table of entry offsets, sorted by key. */
+    private final int offsetsStart;
+
+    private PropertyKeyIndex(long lastModified, ByteBuffer buffer) throws IOException {
+        this.lastModified = lastModified;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a property key index");
+        }
+        this.sources = readString(8);
+        int pos = 12 + buffer.getInt(8);
+        this.size = buffer.getInt(pos);
+        this.offsetsStart = pos + 4;
+    }
+
+    /**
+     * Returns a description of the resources given by the options, which
+     * identifies an index built from them.
+     *
+     * @param propfiles the value of the {@code propfiles} option, or null
+     * @param bundlenames the value of the {@code bundlenames} option, or null
+     */
+    public static String describeSources(/*@Nullable*/ String propfiles, /*@Nullable*/ String bundlenames) {
+        // The class loader the checkers load the resources with.
+        ClassLoader cl = PropertyKeyIndex.class.getClassLoader();
+        if (cl == null) {
+            cl = ClassLoader.getSystemClassLoader();
+        }
+        return describeSources(propfiles, bundlenames, cl);
+    }
+
+    /**
+     * Returns a description of the resources given by the options, as
+     * found by {@code cl}, which identifies an index built from them.
+     *
+     * @param propfiles the value of the {@code propfiles} option, or null
+     * @param bundlenames the value of the {@code bundlenames} option, or null
+     * @param cl the class loader the resources are loaded with
+     */
+    public static String describeSources(/*@Nullable*/ String propfiles, /*@Nullable*/ String bundlenames,
+            ClassLoader cl) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("propfiles=").append(propfiles).append('\n');
+        if (propfiles != null) {
+            for (String name : propfiles.split(":")) {
+                // Property files are looked up on the class path first.
+                if (!describeResource(sb, cl, name)) {
+                    File file = new File(name);
+                    if (file.isFile()) {
+                        sb.append(name).append('@').append(file.lastModified()).append('\n');
+                    }
+                }
+            }
+        }
+        sb.append("bundlenames=").append(bundlenames).append('\n');
+        sb.append("locale=").append(Locale.getDefault()).append('\n');
+        if (bundlenames != null) {
+            ResourceBundle.Control control =
+                    ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_DEFAULT);
+            for (String bundleName : bundlenames.split(":")) {
+                // The resources ResourceBundle.getBundle may load, most specific first.
+                for (Locale locale : control.getCandidateLocales(bundleName, Locale.getDefault())) {
+                    String name = control.toBundleName(bundleName, locale);
+                    describeResource(sb, cl, name.replace('.', '/') + ".class");
+                    describeResource(sb, cl, control.toResourceName(name, "properties"));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the location and modification time of resource {@code name}.
+     *
+     * @return false if there is no such resource
+     */
+    private static boolean describeResource(StringBuilder sb, ClassLoader cl, String name) {
+        URL url = cl.getResource(name);
+        if (url == null) {
+            return false;
+        }
+        sb.append(url).append('@').append(lastModified(url)).append('\n');
+        return true;
+    }
+
+    /**
+     * Returns the modification time of the file that contains the resource
+     * at {@code url}: the resource itself or the jar file it is in; or 0 if
+     * it cannot be determined.
+     */
+    private static long lastModified(URL url) {
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                String path = url.getPath();
+                int separator = path.indexOf("!/");
+                url = new URL(separator < 0 ? path : path.substring(0, separator));
+            }
+            if ("file".equals(url.getProtocol())) {
+                return new File(url.toURI()).lastModified();
+            }
+        } catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+            // Fall through; the location of the resource is still recorded.
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the index stored in {@code file}, or null if there is no index
+     * in {@code file} or if it was built from other sources than
+     * {@code sources}.
+     *
+     * @param file the index file
+     * @param sources the description of the resources, as returned by
+     *        {@link #describeSources}
+     */
+    public static /*@Nullable*/ PropertyKeyIndex open(File file, String sources) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        String name = file.getCanonicalPath();
+        PropertyKeyIndex index;
+        index = mappedIndexes.get(name);
+        if (index == null || index.lastModified != file.lastModified()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                long lastModified = file.lastModified();
+                ByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+                index = new PropertyKeyIndex(lastModified, buffer);
+            } catch (IOException e) {
+                mappedIndexes.remove(name);
+                return null;
+            }
+            mappedIndexes.put(name, index);
+        }
+        return index.sources.equals(sources) ? index : null;
+    }
+
+    /**
+     * Writes an index of {@code values} to {@code file}.
+     *
+     * @param file the index file
+     * @param sources the description of the resources, as returned by
+     *        {@link #describeSources}
+     * @param values the values of all keys
+     * @param categories the pre-parsed format categories of the values; a key
+     *        may be missing
+     */
+    public static void write(File file, String sources, Map<String, String> values,
+            Map<String, String> categories) throws IOException {
+        Map<String, String> sorted = new TreeMap<>(values);
+
+        byte[] sourceBytes = sources.getBytes(UTF8);
+        int entriesStart = 12 + sourceBytes.length + 4 + 4 * sorted.size();
+
+        // Write to a temporary file first, as other compilations may have mapped the index.
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sourceBytes.length);
+            out.write(sourceBytes);
+            out.writeInt(sorted.size());
+
+            int offset = entriesStart;
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                out.writeInt(offset);
+                offset += 4 + entry.getKey().getBytes(UTF8).length;
+                offset += 4 + entry.getValue().getBytes(UTF8).length;
+                String cats = categories.get(entry.getKey());
+                offset += 4 + (cats == null ? 0 : cats.getBytes(UTF8).length);
+            }
+
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+                writeString(out, categories.get(entry.getKey()));
+            }
+        }
+
+        if (!tmp.renameTo(file)) {
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Couldn't write the property key index: " + file);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, /*@Nullable*/ String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(UTF8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private /*@Nullable*/ String readString(int pos) {
+        int length = buffer.getInt(pos);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(pos + 4);
+        view.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private int skipString(int pos) {
+        return pos + 4 + Math.max(0, buffer.getInt(pos));
+    }
+
+    private int entryOffset(int i) {
+        return buffer.getInt(offsetsStart + 4 * i);
+    }
+
+    /** Returns the offset of the entry of {@code key}, or -1 if it is not in the index. */
+    private int find(String key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = entryOffset(mid);
+            int cmp = readString(offset).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the number of keys in the index. */
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(String key) {
+        return find(key) >= 0;
+    }
+
+    /** Returns the value of {@code key}, or null if it is not in the index. */
+    public /*@Nullable*/ String getValue(String key) {
+        int offset = find(key);
+        return offset < 0 ? null : readString(skipString(offset));
+    }
+
+    /**
+     * Returns the pre-parsed format categories of the value of {@code key},
+     * or null if {@code key} is not in the index or its categories were not
+     * recorded.
+     */
+    public /*@Nullable*/ String getCategories(String key) {
+        int offset = find(key);
+        return offset < 0 ? null : readString(skipString(skipString(offset)));
+    }
+
+    /** Returns an unmodifiable view of the keys of the index. */
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && containsKey((String) o);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new EntryIterator<String>() {
+                    @Override
+                    protected String entry(int offset) {
+                        return readString(offset);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** Returns an unmodifiable view of the index as a map from keys to values. */
+    public Map<String, String> asMap() {
+        return new AbstractMap<String, String>() {
+            @Override
+            public boolean containsKey(Object o) {
+                return o instanceof String && PropertyKeyIndex.this.containsKey((String) o);
+            }
+
+            @Override
+            public String get(Object o) {
+                return o instanceof String ? getValue((String) o) : null;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Set<Map.Entry<String, String>> entrySet() {
+                return new AbstractSet<Map.Entry<String, String>>() {
+                    @Override
+                    public Iterator<Map.Entry<String, String>> iterator() {
+                        return new EntryIterator<Map.Entry<String, String>>() {
+                            @Override
+                            protected Map.Entry<String, String> entry(int offset) {
+                                return new AbstractMap.SimpleImmutableEntry<String, String>(
+                                        readString(offset), readString(skipString(offset)));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+        };
+    }
+
+    /** Iterates over the entries of the index in key order. */
+    private abstract class EntryIterator<E> implements Iterator<E> {
+        private int next = 0;
+
+        protected abstract E entry(int offset);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public E next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return entry(entryOffset(next++));
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// Run with -AflowBudget=0,1 -AflowBudgetWidening: the analysis of a method
+// may revisit one block, after which it forgets what it learned in the
+// blocks it revisits.
+
+public class FlowBudget {
+
+    void straightLine() {
+        String a = "a";
+        if (a == "x") { }
+    }
+
+    // The stores of the loop change twice before the fix-point is reached.
+    // Once the second block is revisited, the budget is exceeded and the
+    // store before the loop is widened, so that the analysis terminates
+    // without knowing that a is interned.
+    //:: warning: (flow.budget.exceeded)
+    void widened(boolean cond) {
+        String a = "a";
+        String b = "b";
+        String c = "c";
+        while (cond) {
+            //:: error: (not.interned)
+            if (a == "x") { }
+            c = b;
+            b = new String("b");
+        }
+    }
+}
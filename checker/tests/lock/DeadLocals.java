@@ -0,0 +1,35 @@
+import org.checkerframework.checker.lock.qual.*;
+
+// Locks that are local variables.  With -ApruneDeadLocals, a lock must stay
+// in the store while its monitor is held, even if the lock is not read
+// inside the synchronized block, and a local that is only named in a
+// @GuardedBy annotation must not be removed.
+public class DeadLocals {
+
+    void guardedByLocal() {
+        Object lock = new Object();
+        @GuardedBy("lock") Object guarded = new Object();
+        synchronized (lock) {
+            guarded.toString();
+            guarded.hashCode();
+        }
+        //:: error: (contracts.precondition.not.satisfied.field)
+        guarded.toString();
+    }
+
+    void nestedLocks() {
+        Object outer = new Object();
+        Object inner = new Object();
+        @GuardedBy("outer") Object a = new Object();
+        @GuardedBy("inner") Object b = new Object();
+        synchronized (outer) {
+            synchronized (inner) {
+                a.toString();
+                b.toString();
+            }
+            a.toString();
+            //:: error: (contracts.precondition.not.satisfied.field)
+            b.toString();
+        }
+    }
+}
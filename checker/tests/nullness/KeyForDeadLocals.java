@@ -0,0 +1,27 @@
+import org.checkerframework.checker.nullness.qual.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// With -ApruneDeadLocals, a local map that is only named in @KeyFor
+// annotations after its last read must not be removed from the store.
+public class KeyForDeadLocals {
+
+    void containsKey(String key) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        if (map.containsKey(key)) {
+            @KeyFor("map") String k = key;
+        }
+
+        //:: error: (assignment.type.incompatible)
+        @KeyFor("map") String k2 = key;
+    }
+
+    void put(String key) {
+        String local = key;
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put(local, new Object());
+        @KeyFor("map") String k = local;
+        k.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Runs the I18n Formatter Checker tests with -AshareSubcheckerResults, which
+ * must not change the results of a checker without subcheckers.
+ */
+public class I18nFormatterSharedSubcheckerResultsTest extends ParameterizedCheckerTest {
+
+    public I18nFormatterSharedSubcheckerResultsTest(File testFile) {
+        super(testFile,
+                org.checkerframework.checker.i18nformatter.I18nFormatterChecker.class,
+                "i18n-formatter",
+                "-Anomsgtext", "-AshareSubcheckerResults");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("i18n-formatter", "all-systems");
+    }
+}
@@ -0,0 +1,28 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * JUnit tests for the Interning Checker, with a flow analysis budget of a
+ * single fix-point iteration, after which the stores are widened.
+ */
+public class InterningFlowBudgetTest extends ParameterizedCheckerTest {
+
+    public InterningFlowBudgetTest(File testFile) {
+        super(testFile,
+                org.checkerframework.checker.interning.InterningChecker.class,
+                "interning-flowbudget",
+                "-Anomsgtext",
+                "-AflowBudget=0,1",
+                "-AflowBudgetWidening");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("interning-flowbudget");
+    }
+}
@@ -0,0 +1,26 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * JUnit tests for the Lock Checker, with dead local variables removed
+ * from the dataflow stores.
+ */
+public class LockPruneDeadLocalsTest extends ParameterizedCheckerTest {
+
+    public LockPruneDeadLocalsTest(File testFile) {
+        super(testFile,
+                org.checkerframework.checker.lock.LockChecker.class,
+                "lock",
+                "-Anomsgtext", "-ApruneDeadLocals");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("lock", "all-systems");
+    }
+}
@@ -0,0 +1,32 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.checker.nullness.AbstractNullnessChecker;
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * JUnit tests for the Nullness checker, with the types computed by its
+ * KeyFor subchecker shared with it.
+ */
+public class NullnessSharedSubcheckerResultsTest extends ParameterizedCheckerTest {
+
+    public NullnessSharedSubcheckerResultsTest(File testFile) {
+        super(testFile,
+                org.checkerframework.checker.nullness.NullnessChecker.class,
+                "nullness",
+                "-AcheckPurityAnnotations",
+                "-Anomsgtext", "-Xlint:deprecation",
+                "-Alint=arrays:forbidnonnullcomponents,"
+                        + AbstractNullnessChecker.LINT_REDUNDANTNULLCOMPARISON,
+                "-AshareSubcheckerResults");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("nullness", "initialization/fbc", "all-systems");
+    }
+
+}
@@ -0,0 +1,134 @@
+package tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.checkerframework.checker.propkey.PropertyKeyIndex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the file format of {@link PropertyKeyIndex} and the detection of
+ * modified property files and resource bundles.
+ */
+public class PropertyKeyIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws IOException {
+        Map<String, String> values = new HashMap<>();
+        values.put("b.key", "second {0}");
+        values.put("a.key", "first");
+        values.put("c.key", "");
+        values.put("\u00fcml\u00e4ut", "v\u00e4lue");
+        Map<String, String> categories = new HashMap<>();
+        categories.put("b.key", "GENERAL");
+
+        File file = new File(folder.getRoot(), "index");
+        PropertyKeyIndex.write(file, "sources", values, categories);
+        PropertyKeyIndex index = PropertyKeyIndex.open(file, "sources");
+
+        Assert.assertNotNull(index);
+        Assert.assertEquals(4, index.size());
+        Assert.assertEquals(values, index.asMap());
+        Assert.assertEquals("second {0}", index.getValue("b.key"));
+        Assert.assertEquals("", index.getValue("c.key"));
+        Assert.assertEquals("v\u00e4lue", index.getValue("\u00fcml\u00e4ut"));
+        Assert.assertEquals("GENERAL", index.getCategories("b.key"));
+        Assert.assertNull(index.getCategories("a.key"));
+        Assert.assertFalse(index.containsKey("d.key"));
+        Assert.assertNull(index.getValue("d.key"));
+
+        List<String> keys = new ArrayList<>(index.keySet());
+        Assert.assertEquals(Arrays.asList("a.key", "b.key", "c.key", "\u00fcml\u00e4ut"), keys);
+
+        Assert.assertNull(PropertyKeyIndex.open(file, "other sources"));
+    }
+
+    @Test
+    public void emptyIndex() throws IOException {
+        File file = new File(folder.getRoot(), "index");
+        PropertyKeyIndex.write(file, "", Collections.<String, String>emptyMap(),
+                Collections.<String, String>emptyMap());
+        PropertyKeyIndex index = PropertyKeyIndex.open(file, "");
+
+        Assert.assertNotNull(index);
+        Assert.assertEquals(0, index.size());
+        Assert.assertFalse(index.containsKey(""));
+        Assert.assertFalse(index.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void notAnIndex() throws IOException {
+        File file = writeFile("index", "key=value");
+        Assert.assertNull(PropertyKeyIndex.open(file, "sources"));
+        Assert.assertNull(PropertyKeyIndex.open(new File(folder.getRoot(), "missing"), "sources"));
+    }
+
+    @Test
+    public void rewrittenIndexIsMappedAgain() throws IOException {
+        File file = new File(folder.getRoot(), "index");
+        PropertyKeyIndex.write(file, "sources", Collections.singletonMap("key", "old"),
+                Collections.<String, String>emptyMap());
+        Assert.assertEquals("old", PropertyKeyIndex.open(file, "sources").getValue("key"));
+
+        PropertyKeyIndex.write(file, "sources", Collections.singletonMap("key", "new"),
+                Collections.<String, String>emptyMap());
+        file.setLastModified(file.lastModified() + 2000);
+        Assert.assertEquals("new", PropertyKeyIndex.open(file, "sources").getValue("key"));
+    }
+
+    @Test
+    public void modifiedPropertyFileIsStale() throws IOException {
+        File propfile = writeFile("messages.properties", "key=value");
+        String sources = PropertyKeyIndex.describeSources(propfile.getPath(), null);
+        Assert.assertEquals(sources, PropertyKeyIndex.describeSources(propfile.getPath(), null));
+
+        propfile.setLastModified(propfile.lastModified() + 2000);
+        Assert.assertNotEquals(sources, PropertyKeyIndex.describeSources(propfile.getPath(), null));
+    }
+
+    @Test
+    public void modifiedResourceBundleIsStale() throws IOException {
+        File bundle = writeFile("TestBundle.properties", "key=value");
+        ClassLoader cl = new URLClassLoader(new URL[] { folder.getRoot().toURI().toURL() }, null);
+
+        String sources = PropertyKeyIndex.describeSources(null, "TestBundle", cl);
+        Assert.assertTrue(sources, sources.contains(bundle.getName()));
+        Assert.assertEquals(sources, PropertyKeyIndex.describeSources(null, "TestBundle", cl));
+
+        bundle.setLastModified(bundle.lastModified() + 2000);
+        Assert.assertNotEquals(sources, PropertyKeyIndex.describeSources(null, "TestBundle", cl));
+
+        // A more specific bundle for the default locale also changes the bundle.
+        String language = Locale.getDefault().getLanguage();
+        Assume.assumeFalse(language.isEmpty());
+        sources = PropertyKeyIndex.describeSources(null, "TestBundle", cl);
+        writeFile("TestBundle_" + language + ".properties", "key=other");
+        Assert.assertNotEquals(sources, PropertyKeyIndex.describeSources(null, "TestBundle", cl));
+    }
+
+    private File writeFile(String name, String contents) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(contents.getBytes("UTF-8"));
+        }
+        return file;
+    }
+}
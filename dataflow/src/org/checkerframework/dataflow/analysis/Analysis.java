@@ -24,6 +24,8 @@ import org.checkerframework.javacutil.ElementUtils;
 import org.checkerframework.javacutil.Pair;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -98,9 +100,52 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
      */
     protected IdentityHashMap<ReturnNode, TransferResult<A, S>> storesAtReturnStatements;
 
+    /**
+     * Are the exceptional edges of a block that lead to the same successor
+     * propagated as one store, and are the stores that flow to the
+     * exceptional exit block only merged when that store is requested?
+     */
+    protected boolean coalesceExceptionalEdges = false;
+
+    /**
+     * The stores flowing to the exceptional exit block that have not been
+     * merged into its input yet, by the block they come from.
+     */
+    protected IdentityHashMap<Block, S> pendingExceptionalExitStores;
+
     /** The worklist used for the fix-point iteration. */
     protected Worklist worklist;
 
+    /** The work done by the last run of the analysis. */
+    protected AnalysisStatistics statistics = new AnalysisStatistics();
+
+    /** The numbers of the blocks visited so far by the running analysis. */
+    protected BitSet visitedBlocks;
+
+    /**
+     * The number of fix-point iterations after which the analysis exceeds
+     * its budget, or 0 if unlimited.
+     */
+    protected long iterationBudget = 0;
+
+    /**
+     * The time in nanoseconds after which the analysis exceeds its budget,
+     * or 0 if unlimited.
+     */
+    protected long timeBudget = 0;
+
+    /**
+     * Does the analysis widen the stores of revisited blocks to top once it
+     * has exceeded its budget?
+     */
+    protected boolean widenOverBudget = false;
+
+    /** Has the running analysis exceeded its iteration or time budget? */
+    protected boolean budgetExceeded;
+
+    /** The value of {@link System#nanoTime} when the analysis started. */
+    protected long startTime;
+
     /** Abstract values of nodes. */
     protected IdentityHashMap<Node, A> nodeValues;
 
@@ -172,6 +217,35 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
         return env;
     }
 
+    /**
+     * Propagate the stores of the exceptional edges of a block to each
+     * successor only once, and merge the stores that flow to the
+     * exceptional exit lazily.  This does not change the result of the
+     * analysis.
+     */
+    public void setCoalesceExceptionalEdges(boolean coalesce) {
+        this.coalesceExceptionalEdges = coalesce;
+    }
+
+    /**
+     * Set the budget of the analysis: it exceeds the budget once it needs
+     * more than {@code iterations} fix-point iterations or runs longer than
+     * {@code nanos} nanoseconds, which its statistics record.  A budget of 0
+     * means unlimited.
+     *
+     * <p>
+     * If {@code widen} is true, every store that flows into a block that
+     * has already been visited is widened to top (see {@link #topStore})
+     * once the budget is exceeded.  The analysis then terminates quickly,
+     * at the cost of precision; the statistics record how many stores were
+     * widened.
+     */
+    public void setBudget(long iterations, long nanos, boolean widen) {
+        this.iterationBudget = iterations;
+        this.timeBudget = nanos;
+        this.widenOverBudget = widen;
+    }
+
     /**
      * Perform the actual analysis. Should only be called once after the object
      * has been created.
@@ -179,11 +253,13 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
     public void performAnalysis(ControlFlowGraph cfg) {
         assert isRunning == false;
         isRunning = true;
+        startTime = System.nanoTime();
 
         init(cfg);
 
         while (!worklist.isEmpty()) {
             Block b = worklist.poll();
+            countBlockVisit(b);
 
             switch (b.getType()) {
             case REGULAR_BLOCK: {
@@ -231,6 +307,11 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
                 }
 
                 // propagate store to exceptional successors
+                if (coalesceExceptionalEdges) {
+                    propagateCoalescedExceptionalStores(eb, inputBefore, transferResult,
+                            addToWorklistAgain);
+                    break;
+                }
                 for (Entry<TypeMirror, Set<Block>> e : eb.getExceptionalSuccessors()
                         .entrySet()) {
                     TypeMirror cause = e.getKey();
@@ -284,10 +365,80 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
             }
         }
 
+        checkBudget();
+        statistics.nanos = System.nanoTime() - startTime;
         assert isRunning == true;
         isRunning = false;
     }
 
+    /**
+     * @return The work done by the last run of the analysis (or of the
+     *         running analysis, so far)
+     */
+    public AnalysisStatistics getStatistics() {
+        return statistics;
+    }
+
+    /** Counts a visit of block {@code b} in the statistics of the analysis. */
+    protected void countBlockVisit(Block b) {
+        statistics.blockVisits++;
+        int number = cfg.getBlockNumber(b);
+        if (number >= 0) {
+            if (visitedBlocks.get(number)) {
+                statistics.fixpointIterations++;
+            } else {
+                visitedBlocks.set(number);
+            }
+        }
+        checkBudget();
+    }
+
+    /** Records in {@link #budgetExceeded} whether the budget is exceeded. */
+    private void checkBudget() {
+        if (!budgetExceeded
+                && ((iterationBudget > 0 && statistics.fixpointIterations > iterationBudget)
+                    || (timeBudget > 0 && System.nanoTime() - startTime > timeBudget))) {
+            budgetExceeded = true;
+            statistics.budgetExceeded = true;
+        }
+    }
+
+    /**
+     * Returns the top element of the lattice of stores, which holds no
+     * information, or {@code null} if this analysis cannot create it.  The
+     * stores of revisited blocks are widened to this store once the budget
+     * of the analysis is exceeded; without it, no stores are widened.
+     *
+     * @param s a store of this analysis, as a template
+     */
+    protected /*@Nullable*/ S topStore(S s) {
+        return null;
+    }
+
+    /**
+     * Returns the store that flows into block {@code b}: {@code s}, or top
+     * if the budget of the analysis is exceeded and {@code b} has been
+     * visited before.
+     */
+    private S widenIfRevisited(Block b, S s) {
+        int number = cfg.getBlockNumber(b);
+        if (number < 0 || !visitedBlocks.get(number)) {
+            return s;
+        }
+        S top = topStore(s);
+        if (top == null) {
+            return s;
+        }
+        statistics.widenedStores++;
+        return top;
+    }
+
+    /** Returns the least upper bound of two stores, and counts it in the statistics. */
+    protected S mergeStores(S s1, S s2) {
+        statistics.storeMerges++;
+        return s1.leastUpperBound(s2);
+    }
+
     /**
      * Propagate the stores in currentInput to the successor block, succ, according to the
      * flowRule.
@@ -325,6 +476,80 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
         }
     }
 
+    /**
+     * Propagate the exceptional stores of exception block {@code eb} to its
+     * exceptional successors, with one store per successor: the stores for
+     * all exception types that lead to the same successor are merged first.
+     * The store for the exceptional exit block is only recorded; see
+     * {@link #mergePendingExceptionalExitStores()}.
+     */
+    protected void propagateCoalescedExceptionalStores(ExceptionBlock eb,
+            TransferInput<A, S> inputBefore, TransferResult<A, S> transferResult,
+            boolean addToWorklistAgain) {
+        Node node = eb.getNode();
+        // The merged exceptional stores, by successor.
+        Map<Block, S> succStores = new IdentityHashMap<>();
+        // The successors that are reached with the store before the node.
+        Set<Block> inputSuccs = null;
+        for (Entry<TypeMirror, Set<Block>> e : eb.getExceptionalSuccessors()
+                .entrySet()) {
+            S exceptionalStore = transferResult.getExceptionalStore(e.getKey());
+            for (Block exceptionSucc : e.getValue()) {
+                if (exceptionalStore == null) {
+                    if (inputSuccs == null) {
+                        inputSuccs = Collections.newSetFromMap(new IdentityHashMap<Block, Boolean>());
+                    }
+                    inputSuccs.add(exceptionSucc);
+                } else {
+                    S previous = succStores.get(exceptionSucc);
+                    succStores.put(exceptionSucc, previous == null ? exceptionalStore
+                            : mergeStores(previous, exceptionalStore));
+                }
+            }
+        }
+        if (inputSuccs != null) {
+            for (Block exceptionSucc : inputSuccs) {
+                S inputStore = inputBefore.copy().getRegularStore();
+                S previous = succStores.get(exceptionSucc);
+                succStores.put(exceptionSucc, previous == null ? inputStore
+                        : mergeStores(previous, inputStore));
+            }
+        }
+
+        Block exceptionalExit = cfg.getExceptionalExitBlock();
+        for (Entry<Block, S> e : succStores.entrySet()) {
+            Block exceptionSucc = e.getKey();
+            if (exceptionSucc == exceptionalExit) {
+                S s = storeEnteringBlock(exceptionSucc, e.getValue());
+                S previous = pendingExceptionalExitStores.get(eb);
+                pendingExceptionalExitStores.put(eb, previous == null ? s
+                        : mergeStores(previous, s));
+            } else {
+                addStoreBefore(exceptionSucc, node, e.getValue(), Store.Kind.BOTH,
+                        addToWorklistAgain);
+            }
+        }
+    }
+
+    /**
+     * Merge the stores that were recorded for the exceptional exit block by
+     * {@link #propagateCoalescedExceptionalStores} into its input.
+     */
+    protected void mergePendingExceptionalExitStores() {
+        if (pendingExceptionalExitStores == null || pendingExceptionalExitStores.isEmpty()) {
+            return;
+        }
+        Block exceptionalExit = cfg.getExceptionalExitBlock();
+        S merged = getStoreBefore(exceptionalExit, Store.Kind.THEN);
+        for (S s : pendingExceptionalExitStores.values()) {
+            merged = (merged == null) ? s : mergeStores(merged, s);
+        }
+        pendingExceptionalExitStores.clear();
+        thenStores.put(exceptionalExit, merged);
+        elseStores.put(exceptionalExit, merged);
+        inputs.put(exceptionalExit, new TransferInput<>(null, this, merged));
+    }
+
     /**
      * Updates the value of node {@code node} to the value of the 
      * {@code transferResult}. Returns true if the node's value changed, or a
@@ -357,6 +582,7 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
             return new RegularTransferResult<A, S>(null,
                     store.getRegularStore());
         }
+        statistics.transferFunctionCalls++;
         store.node = node;
         currentNode = node;
         TransferResult<A, S> transferResult = node.accept(transferFunction,
@@ -385,10 +611,14 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
     /** Initialize the analysis with a new control flow graph. */
     protected void init(ControlFlowGraph cfg) {
         this.cfg = cfg;
+        statistics = new AnalysisStatistics();
+        visitedBlocks = new BitSet(cfg.getNumberOfBlocks());
+        budgetExceeded = false;
         thenStores = new IdentityHashMap<>();
         elseStores = new IdentityHashMap<>();
         inputs = new IdentityHashMap<>();
         storesAtReturnStatements = new IdentityHashMap<>();
+        pendingExceptionalExitStores = new IdentityHashMap<>();
         worklist = new Worklist(cfg);
         nodeValues = new IdentityHashMap<>();
         finalLocalValues = new HashMap<>();
@@ -436,12 +666,27 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
         }
     }
 
+    /**
+     * Returns the store that flows into the basic block <code>b</code> when
+     * the store <code>s</code> is propagated to it.  Subclasses can override
+     * this method to drop information that is not needed within
+     * <code>b</code> and its successors, which makes merging cheaper; the
+     * default implementation returns <code>s</code>.
+     */
+    protected S storeEnteringBlock(Block b, S s) {
+        return s;
+    }
+
     /**
      * Add a store before the basic block <code>b</code> by merging with the
      * existing stores for that location.
      */
     protected void addStoreBefore(Block b, Node node, S s, Store.Kind kind,
             boolean addBlockToWorklist) {
+        s = storeEnteringBlock(b, s);
+        if (budgetExceeded && widenOverBudget) {
+            s = widenIfRevisited(b, s);
+        }
         S thenStore = getStoreBefore(b, Store.Kind.THEN);
         S elseStore = getStoreBefore(b, Store.Kind.ELSE);
 
@@ -449,7 +694,7 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
         case THEN: {
             // Update the then store
             S newThenStore = (thenStore != null) ?
-                thenStore.leastUpperBound(s) : s;
+                mergeStores(thenStore, s) : s;
             if (!newThenStore.equals(thenStore)) {
                 thenStores.put(b, newThenStore);
                 if (elseStore != null) {
@@ -462,7 +707,7 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
         case ELSE: {
             // Update the else store
             S newElseStore = (elseStore != null) ?
-                elseStore.leastUpperBound(s) : s;
+                mergeStores(elseStore, s) : s;
             if (!newElseStore.equals(elseStore)) {
                 elseStores.put(b, newElseStore);
                 if (thenStore != null) {
@@ -476,7 +721,7 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
             if (thenStore == elseStore) {
                 // Currently there is only one regular store
                 S newStore = (thenStore != null) ?
-                    thenStore.leastUpperBound(s) : s;
+                    mergeStores(thenStore, s) : s;
                 if (!newStore.equals(thenStore)) {
                     thenStores.put(b, newStore);
                     elseStores.put(b, newStore);
@@ -487,14 +732,14 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
                 boolean storeChanged = false;
 
                 S newThenStore = (thenStore != null) ?
-                    thenStore.leastUpperBound(s) : s;
+                    mergeStores(thenStore, s) : s;
                 if (!newThenStore.equals(thenStore)) {
                     thenStores.put(b, newThenStore);
                     storeChanged = true;
                 }
 
                 S newElseStore = (elseStore != null) ?
-                    elseStore.leastUpperBound(s) : s;
+                    mergeStores(elseStore, s) : s;
                 if (!newElseStore.equals(elseStore)) {
                     elseStores.put(b, newElseStore);
                     storeChanged = true;
@@ -515,18 +760,24 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
     /**
      * A worklist is a priority queue of blocks in which the order is given
      * by depth-first ordering to place non-loop predecessors ahead of successors.
+     * A backward worklist uses the reverse order, placing successors ahead
+     * of their predecessors.
      */
     protected static class Worklist {
 
-        /** Map all blocks in the CFG to their depth-first order. */
-        protected IdentityHashMap<Block, Integer> depthFirstOrder;
+        /** The CFG, which knows the depth-first order of its blocks. */
+        protected final ControlFlowGraph cfg;
+
+        /** Is the order reversed for a backward analysis? */
+        protected final boolean backward;
 
         /** Comparator to allow priority queue to order blocks by their depth-first
             order. */
         public class DFOComparator implements Comparator<Block> {
             @Override
             public int compare(Block b1, Block b2) {
-                return depthFirstOrder.get(b1) - depthFirstOrder.get(b2);
+                int diff = cfg.getDepthFirstOrder(b1) - cfg.getDepthFirstOrder(b2);
+                return backward ? -diff : diff;
             }
         }
 
@@ -535,12 +786,12 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
 
 
         public Worklist(ControlFlowGraph cfg) {
-            depthFirstOrder = new IdentityHashMap<>();
-            int count = 1;
-            for (Block b : cfg.getDepthFirstOrderedBlocks()) {
-                depthFirstOrder.put(b, count++);
-            }
+            this(cfg, false);
+        }
 
+        public Worklist(ControlFlowGraph cfg, boolean backward) {
+            this.cfg = cfg;
+            this.backward = backward;
             queue = new PriorityQueue<Block>(11, new DFOComparator());
         }
 
@@ -571,6 +822,9 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
      * none exists yet).
      */
     public /*@Nullable*/ TransferInput<A, S> getInput(Block b) {
+        if (b == cfg.getExceptionalExitBlock()) {
+            mergePendingExceptionalExitStores();
+        }
         return getInputBefore(b);
     }
 
@@ -691,8 +945,8 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
 
     public AnalysisResult<A, S> getResult() {
         assert !isRunning;
-        IdentityHashMap<Tree, Node> treeLookup = cfg.getTreeLookup();
-        return new AnalysisResult<>(nodeValues, inputs, treeLookup, finalLocalValues);
+        mergePendingExceptionalExitStores();
+        return new AnalysisResult<>(nodeValues, inputs, cfg.getReadOnlyTreeLookup(), finalLocalValues);
     }
 
     /**
@@ -711,6 +965,7 @@ public class Analysis<A extends AbstractValue<A>, S extends Store<S>, T extends
     }
 
     public S getExceptionalExitStore() {
+        mergePendingExceptionalExitStores();
         S exceptionalExitStore = inputs.get(cfg.getExceptionalExitBlock())
                 .getRegularStore();
         return exceptionalExitStore;
@@ -33,8 +33,15 @@ public class AnalysisResult<A extends AbstractValue<A>, S extends Store<S>> {
     /** Abstract values of nodes. */
     protected final IdentityHashMap<Node, A> nodeValues;
 
-    /** Map from AST {@link Tree}s to {@link Node}s. */
-    protected final IdentityHashMap<Tree, Node> treeLookup;
+    /**
+     * Map from AST {@link Tree}s to {@link Node}s.  Initially, this may be
+     * the read-only tree lookup of a control flow graph; it is copied when
+     * another result is combined into this one.
+     */
+    protected Map<Tree, Node> treeLookup;
+
+    /** Whether {@link #treeLookup} is owned by this result and can be modified. */
+    private boolean ownsTreeLookup;
 
     /** Map from (effectively final) local variable elements to their abstract value. */
     protected final HashMap<Element, A> finalLocalValues;
@@ -49,9 +56,10 @@ public class AnalysisResult<A extends AbstractValue<A>, S extends Store<S>> {
      */
     public AnalysisResult(Map<Node, A> nodeValues,
             IdentityHashMap<Block, TransferInput<A, S>> stores,
-            IdentityHashMap<Tree, Node> treeLookup, HashMap<Element, A> finalLocalValues) {
+            Map<Tree, Node> treeLookup, HashMap<Element, A> finalLocalValues) {
         this.nodeValues = new IdentityHashMap<>(nodeValues);
-        this.treeLookup = new IdentityHashMap<>(treeLookup);
+        this.treeLookup = treeLookup;
+        this.ownsTreeLookup = false;
         this.stores = stores;
         this.finalLocalValues = finalLocalValues;
     }
@@ -62,6 +70,7 @@ public class AnalysisResult<A extends AbstractValue<A>, S extends Store<S>> {
     public AnalysisResult() {
         nodeValues = new IdentityHashMap<>();
         treeLookup = new IdentityHashMap<>();
+        ownsTreeLookup = true;
         stores = new IdentityHashMap<>();
         finalLocalValues = new HashMap<>();
     }
@@ -73,9 +82,11 @@ public class AnalysisResult<A extends AbstractValue<A>, S extends Store<S>> {
         for (Entry<Node, A> e : other.nodeValues.entrySet()) {
             nodeValues.put(e.getKey(), e.getValue());
         }
-        for (Entry<Tree, Node> e : other.treeLookup.entrySet()) {
-            treeLookup.put(e.getKey(), e.getValue());
+        if (!ownsTreeLookup) {
+            treeLookup = new IdentityHashMap<>(treeLookup);
+            ownsTreeLookup = true;
         }
+        treeLookup.putAll(other.treeLookup);
         for (Entry<Block, TransferInput<A, S>> e : other.stores.entrySet()) {
             stores.put(e.getKey(), e.getValue());
         }
@@ -0,0 +1,84 @@
+package org.checkerframework.dataflow.analysis;
+
+/**
+ * Counts the work done by one run of an {@link Analysis} on a control flow
+ * graph: how often blocks were visited, how many of those visits were
+ * repeated because the store before a block changed, how often the
+ * transfer function was invoked and how many stores were merged.
+ */
+public class AnalysisStatistics {
+
+    /** The number of blocks taken from the worklist. */
+    protected long blockVisits;
+
+    /**
+     * The number of blocks taken from the worklist that had been visited
+     * before, that is, the iterations needed to reach the fix-point.
+     */
+    protected long fixpointIterations;
+
+    /** The number of invocations of the transfer function. */
+    protected long transferFunctionCalls;
+
+    /** The number of least upper bounds of stores. */
+    protected long storeMerges;
+
+    /**
+     * The number of stores that were widened to top because the analysis
+     * exceeded its budget (see {@link Analysis#setBudget}).
+     */
+    protected long widenedStores;
+
+    /**
+     * Did the analysis exceed its budget (see {@link Analysis#setBudget})?
+     */
+    protected boolean budgetExceeded;
+
+    /** The wall-clock time of the analysis, in nanoseconds. */
+    protected long nanos;
+
+    public long getBlockVisits() {
+        return blockVisits;
+    }
+
+    public long getFixpointIterations() {
+        return fixpointIterations;
+    }
+
+    public long getTransferFunctionCalls() {
+        return transferFunctionCalls;
+    }
+
+    public long getStoreMerges() {
+        return storeMerges;
+    }
+
+    public long getWidenedStores() {
+        return widenedStores;
+    }
+
+    /**
+     * @return True if the analysis exceeded its budget and widened stores,
+     *         so that its results are less precise than the fix-point
+     */
+    public boolean isPrecisionLost() {
+        return widenedStores > 0;
+    }
+
+    public boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f ms, %d block visits, %d fix-point iterations, "
+                + "%d transfer function calls, %d store merges",
+                nanos / 1e6, blockVisits, fixpointIterations,
+                transferFunctionCalls, storeMerges)
+                + (widenedStores > 0 ? ", " + widenedStores + " stores widened" : "");
+    }
+}
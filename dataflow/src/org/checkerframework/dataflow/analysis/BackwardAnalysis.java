@@ -0,0 +1,222 @@
+package org.checkerframework.dataflow.analysis;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.block.ExceptionBlock;
+import org.checkerframework.dataflow.cfg.block.RegularBlock;
+import org.checkerframework.dataflow.cfg.node.Node;
+
+import java.util.BitSet;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+
+/**
+ * An implementation of an iterative algorithm to solve a backward dataflow
+ * problem, given a control flow graph and a {@link BackwardTransferFunction}.
+ *
+ * <p>
+ *
+ * The analysis starts at the exit blocks of the graph and propagates stores
+ * from every block to its predecessors, visiting the nodes of a block in
+ * reverse order.  The store after a block is the least upper bound of the
+ * stores before its successors, including its exceptional successors; then
+ * and else stores are not distinguished.  It uses the same worklist as
+ * {@link Analysis}, with the depth-first order of the blocks reversed.
+ *
+ * <p>
+ *
+ * In a backward analysis, {@link #getInput(Block)} is the transfer input
+ * at the end of a block; use {@link #getStoreAtBlockEntry(Block)} for the
+ * store at its beginning.  Once the analysis has finished, its result is a
+ * {@link BackwardAnalysisResult}, which computes the stores before and
+ * after a tree by running the transfer function backward within its block.
+ *
+ * @param <A>
+ *            The abstract value type to be tracked by the analysis.
+ * @param <S>
+ *            The store type used in the analysis.
+ * @param <T>
+ *            The transfer function type that is used to approximated runtime
+ *            behavior.
+ */
+public class BackwardAnalysis<A extends AbstractValue<A>, S extends Store<S>, T extends BackwardTransferFunction<A, S>>
+        extends Analysis<A, S, T> {
+
+    /** The stores at the beginning of every basic block. */
+    protected IdentityHashMap<Block, S> entryStores;
+
+    public BackwardAnalysis(ProcessingEnvironment env) {
+        super(env);
+    }
+
+    public BackwardAnalysis(ProcessingEnvironment env, T transfer) {
+        super(env, transfer);
+    }
+
+    /**
+     * Perform the actual analysis. Should only be called once after the object
+     * has been created.
+     */
+    @Override
+    public void performAnalysis(ControlFlowGraph cfg) {
+        assert isRunning == false;
+        isRunning = true;
+        startTime = System.nanoTime();
+
+        init(cfg);
+
+        while (!worklist.isEmpty()) {
+            Block b = worklist.poll();
+            countBlockVisit(b);
+
+            TransferInput<A, S> inputAfter = getInputBefore(b);
+            currentInput = inputAfter.copy();
+            boolean addToWorklistAgain = false;
+
+            switch (b.getType()) {
+            case REGULAR_BLOCK: {
+                List<Node> contents = ((RegularBlock) b).getContents();
+                for (int i = contents.size() - 1; i >= 0; i--) {
+                    Node n = contents.get(i);
+                    TransferResult<A, S> transferResult = callTransferFunction(n, currentInput);
+                    addToWorklistAgain |= updateNodeValues(n, transferResult);
+                    currentInput = new TransferInput<>(n, this, transferResult);
+                }
+                break;
+            }
+
+            case EXCEPTION_BLOCK: {
+                Node node = ((ExceptionBlock) b).getNode();
+                TransferResult<A, S> transferResult = callTransferFunction(node, currentInput);
+                addToWorklistAgain = updateNodeValues(node, transferResult);
+                currentInput = new TransferInput<>(node, this, transferResult);
+                break;
+            }
+
+            default:
+                // Conditional and special blocks contain no nodes; the store
+                // flows through unchanged.
+                break;
+            }
+
+            S entryStore = currentInput.getRegularStore();
+            entryStores.put(b, entryStore);
+
+            // propagate store to predecessors
+            int[] preds = cfg.getPredecessorNumbers(cfg.getBlockNumber(b));
+            for (int pred : preds) {
+                addStoreBefore(cfg.getBlock(pred), null, entryStore.copy(), Store.Kind.BOTH,
+                        addToWorklistAgain);
+            }
+        }
+
+        currentInput = null;
+        statistics.nanos = System.nanoTime() - startTime;
+        assert isRunning == true;
+        isRunning = false;
+    }
+
+    /**
+     * Call the transfer function for node {@code node}, and set that node as
+     * current node first.  Unlike {@link Analysis#callTransferFunction}, this
+     * does not record the stores at return statements or the values of
+     * final locals, which are only meaningful in a forward analysis.
+     */
+    @Override
+    protected TransferResult<A, S> callTransferFunction(Node node,
+            TransferInput<A, S> store) {
+        if (node.isLValue()) {
+            return new RegularTransferResult<A, S>(null,
+                    store.getRegularStore());
+        }
+        statistics.transferFunctionCalls++;
+        statistics.transferFunctionCalls++;
+        store.node = node;
+        currentNode = node;
+        TransferResult<A, S> transferResult = node.accept(transferFunction,
+                store);
+        currentNode = null;
+        return transferResult;
+    }
+
+    /** Initialize the analysis with a new control flow graph. */
+    @Override
+    protected void init(ControlFlowGraph cfg) {
+        this.cfg = cfg;
+        statistics = new AnalysisStatistics();
+        visitedBlocks = new BitSet(cfg.getNumberOfBlocks());
+        budgetExceeded = false;
+        thenStores = new IdentityHashMap<>();
+        elseStores = new IdentityHashMap<>();
+        inputs = new IdentityHashMap<>();
+        entryStores = new IdentityHashMap<>();
+        storesAtReturnStatements = new IdentityHashMap<>();
+        pendingExceptionalExitStores = new IdentityHashMap<>();
+        worklist = new Worklist(cfg, true);
+        nodeValues = new IdentityHashMap<>();
+        finalLocalValues = new HashMap<>();
+
+        UnderlyingAST underlyingAST = cfg.getUnderlyingAST();
+        initExit(cfg.getRegularExitBlock(),
+                transferFunction.initialNormalExitStore(underlyingAST, cfg.getReturnNodes()));
+        initExit(cfg.getExceptionalExitBlock(),
+                transferFunction.initialExceptionalExitStore(underlyingAST));
+    }
+
+    private void initExit(Block exit, S initialStore) {
+        if (cfg.getBlockNumber(exit) < 0) {
+            // The exit is not reachable.
+            return;
+        }
+        thenStores.put(exit, initialStore);
+        elseStores.put(exit, initialStore);
+        inputs.put(exit, new TransferInput<>(null, this, initialStore));
+        worklist.add(exit);
+    }
+
+    /**
+     * @return The store at the beginning of basic block {@code b}, or
+     *         {@code null} if no information is available (because
+     *         {@code b} does not reach an exit of the graph).
+     */
+    public /*@Nullable*/ S getStoreAtBlockEntry(Block b) {
+        return entryStores.get(b);
+    }
+
+    /**
+     * @return The store at the end of basic block {@code b}, or {@code null}
+     *         if no information is available.
+     */
+    public /*@Nullable*/ S getStoreAtBlockExit(Block b) {
+        TransferInput<A, S> input = getInputBefore(b);
+        return input == null ? null : input.getRegularStore();
+    }
+
+    /**
+     * @return The store at the entry of the control flow graph, or
+     *         {@code null} if no exit of the graph is reachable.
+     */
+    public /*@Nullable*/ S getEntryStore() {
+        return getStoreAtBlockEntry(cfg.getEntryBlock());
+    }
+
+    /**
+     * @return The result of the analysis, whose stores at block exits are
+     *         the transfer inputs of this analysis.
+     */
+    @Override
+    public BackwardAnalysisResult<A, S> getResult() {
+        assert !isRunning;
+        return new BackwardAnalysisResult<>(nodeValues, inputs, entryStores,
+                cfg.getReadOnlyTreeLookup(), finalLocalValues);
+    }
+}
@@ -0,0 +1,162 @@
+package org.checkerframework.dataflow.analysis;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.block.ExceptionBlock;
+import org.checkerframework.dataflow.cfg.block.RegularBlock;
+import org.checkerframework.dataflow.cfg.node.Node;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.lang.model.element.Element;
+
+import com.sun.source.tree.Tree;
+
+/**
+ * The result of a {@link BackwardAnalysis}.  The transfer inputs of the
+ * result are the stores at the end of every basic block, and the stores
+ * before and after a tree are computed by running the transfer function
+ * backward from the end of its block.
+ *
+ * @param <A>
+ *            type of the abstract value that is tracked.
+ */
+public class BackwardAnalysisResult<A extends AbstractValue<A>, S extends Store<S>>
+        extends AnalysisResult<A, S> {
+
+    /** The stores at the beginning of every basic block. */
+    protected final IdentityHashMap<Block, S> entryStores;
+
+    /**
+     * Initialize with a given node-value mapping, the transfer inputs at the
+     * end of every basic block, and the stores at their beginning.
+     */
+    public BackwardAnalysisResult(Map<Node, A> nodeValues,
+            IdentityHashMap<Block, TransferInput<A, S>> exitStores,
+            IdentityHashMap<Block, S> entryStores,
+            Map<Tree, Node> treeLookup, HashMap<Element, A> finalLocalValues) {
+        super(nodeValues, exitStores, treeLookup, finalLocalValues);
+        this.entryStores = entryStores;
+    }
+
+    /**
+     * Initialize empty result.
+     */
+    public BackwardAnalysisResult() {
+        entryStores = new IdentityHashMap<>();
+    }
+
+    /**
+     * Combine with another analysis result.
+     */
+    @Override
+    public void combine(AnalysisResult<A, S> other) {
+        super.combine(other);
+        if (other instanceof BackwardAnalysisResult) {
+            for (Entry<Block, S> e : ((BackwardAnalysisResult<A, S>) other).entryStores
+                    .entrySet()) {
+                entryStores.put(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The store at the beginning of basic block {@code b}, or
+     *         {@code null} if no information is available.
+     */
+    public /*@Nullable*/ S getStoreAtBlockEntry(Block b) {
+        return entryStores.get(b);
+    }
+
+    /**
+     * @return The store at the end of basic block {@code b}, or {@code null}
+     *         if no information is available.
+     */
+    public /*@Nullable*/ S getStoreAtBlockExit(Block b) {
+        TransferInput<A, S> input = stores.get(b);
+        return input == null ? null : input.getRegularStore();
+    }
+
+    /**
+     * Runs the analysis again backward within the block of {@code node},
+     * starting with the store at the end of the block, and returns the store
+     * at the location of {@code node}.  If {@code before} is true, then the
+     * store immediately before the {@link Node} {@code node} (in program
+     * order) is returned, which is the store that the transfer function
+     * computes for {@code node}.  Otherwise, the store after {@code node}
+     * is returned.
+     */
+    @Override
+    protected S runAnalysisFor(Node node, boolean before) {
+        Block block = node.getBlock();
+        TransferInput<A, S> transferInput = stores.get(block);
+        if (transferInput == null) {
+            return null;
+        }
+        Analysis<A, S, ?> analysis = transferInput.analysis;
+        Node oldCurrentNode = analysis.currentNode;
+
+        if (analysis.isRunning) {
+            return analysis.currentInput.getRegularStore();
+        }
+        analysis.isRunning = true;
+        try {
+            switch (block.getType()) {
+            case REGULAR_BLOCK: {
+                List<Node> contents = ((RegularBlock) block).getContents();
+
+                // Apply the transfer function to the contents in reverse
+                // order until we found the node we are looking for.
+                TransferInput<A, S> store = transferInput.copy();
+                for (int i = contents.size() - 1; i >= 0; i--) {
+                    Node n = contents.get(i);
+                    analysis.currentNode = n;
+                    if (n == node && !before) {
+                        return store.getRegularStore();
+                    }
+                    TransferResult<A, S> transferResult = analysis.callTransferFunction(n, store);
+                    if (n == node) {
+                        return transferResult.getRegularStore();
+                    }
+                    store = new TransferInput<>(n, analysis, transferResult);
+                }
+                // This point should never be reached. If the block of 'node' is
+                // 'block', then 'node' must be part of the contents of 'block'.
+                assert false;
+                return null;
+            }
+
+            case EXCEPTION_BLOCK: {
+                ExceptionBlock eb = (ExceptionBlock) block;
+
+                // apply transfer function to content
+                assert eb.getNode() == node;
+                if (!before) {
+                    return transferInput.getRegularStore();
+                }
+                analysis.currentNode = node;
+                TransferResult<A, S> transferResult = analysis
+                        .callTransferFunction(node, transferInput.copy());
+                return transferResult.getRegularStore();
+            }
+
+            default:
+                // Only regular blocks and exceptional blocks can hold nodes.
+                assert false;
+                break;
+            }
+
+            return null;
+        } finally {
+            analysis.currentNode = oldCurrentNode;
+            analysis.isRunning = false;
+        }
+    }
+}
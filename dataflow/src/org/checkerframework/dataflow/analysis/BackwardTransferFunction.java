@@ -0,0 +1,38 @@
+package org.checkerframework.dataflow.analysis;
+
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.dataflow.cfg.node.ReturnNode;
+
+import java.util.List;
+
+/**
+ * Interface of a transfer function for a backward analysis, as performed by
+ * {@link BackwardAnalysis}.
+ *
+ * <p>
+ *
+ * The individual transfer functions ({@code visit*}) receive the store
+ * <em>after</em> a node and produce the store <em>before</em> it.  Instead
+ * of {@link #initialStore}, which is not used by a backward analysis, the
+ * analysis starts with the stores given by
+ * {@link #initialNormalExitStore} and {@link #initialExceptionalExitStore}.
+ *
+ * @param <S>
+ *            The {@link Store} used to keep track of intermediate results.
+ */
+public interface BackwardTransferFunction<A extends AbstractValue<A>, S extends Store<S>>
+        extends TransferFunction<A, S> {
+
+    /**
+     * @return The store at the regular exit block of the control flow graph.
+     *         {@code returnNodes} are the return statements of the graph.
+     */
+    S initialNormalExitStore(UnderlyingAST underlyingAST,
+            List<ReturnNode> returnNodes);
+
+    /**
+     * @return The store at the exceptional exit block of the control flow
+     *         graph.
+     */
+    S initialExceptionalExitStore(UnderlyingAST underlyingAST);
+}
@@ -0,0 +1,299 @@
+package org.checkerframework.dataflow.analysis;
+
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.block.ExceptionBlock;
+import org.checkerframework.dataflow.cfg.block.RegularBlock;
+import org.checkerframework.dataflow.cfg.node.AssignmentNode;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.dataflow.cfg.node.SynchronizedNode;
+import org.checkerframework.javacutil.TreeUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+
+/**
+ * The live local variables at the beginning of every basic block of a
+ * control flow graph, computed by a backward analysis of the graph.
+ * A variable is live at a point if its current value may be read later.
+ *
+ * <p>
+ * Only local variables that are declared in the code of the graph are
+ * tracked: method parameters are considered live everywhere, because
+ * postconditions may refer to them at the exit of the method, and so are
+ * local variables that are referenced by lambda expressions or classes
+ * declared in the code, because these are analyzed with the store at their
+ * declaration, and local variables whose name occurs in a string in an
+ * annotation in the code, because Java expressions in annotations such as
+ * {@code @GuardedBy("lock")} or {@code @KeyFor("map")} may refer to them.
+ * The lock of a {@code synchronized} statement is read again when the
+ * monitor is released, so it is live throughout the statement.
+ *
+ * @see Analysis#storeEnteringBlock
+ */
+public class LiveVariables {
+
+    protected final ControlFlowGraph cfg;
+
+    /** The tracked variables; the index of a variable is its number. */
+    protected final List<Element> variables = new ArrayList<>();
+
+    /** The number of every tracked variable. */
+    protected final Map<Element, Integer> variableNumbers = new HashMap<>();
+
+    /** The variables that are read before they are written in a block, by block number. */
+    protected final BitSet[] uses;
+
+    /** The variables that are written in a block, by block number. */
+    protected final BitSet[] defs;
+
+    /** The live variables at the beginning of a block, by block number. */
+    protected final BitSet[] liveIn;
+
+    /** Local variables that must not be treated as dead. */
+    protected final Set<Element> captured;
+
+    /**
+     * The identifiers in the strings of the annotations in the code; local
+     * variables with these names must not be treated as dead.
+     */
+    protected final Set<String> namesInAnnotations;
+
+    public LiveVariables(ControlFlowGraph cfg) {
+        this.cfg = cfg;
+        Tree code = cfg.getUnderlyingAST().getCode();
+        this.captured = capturedVariables(code);
+        this.namesInAnnotations = namesInAnnotations(code);
+
+        int blocks = cfg.getNumberOfBlocks();
+        uses = new BitSet[blocks];
+        defs = new BitSet[blocks];
+        liveIn = new BitSet[blocks];
+        for (int i = 0; i < blocks; i++) {
+            uses[i] = new BitSet();
+            defs[i] = new BitSet();
+            liveIn[i] = new BitSet();
+            computeUsesAndDefs(cfg.getBlock(i), uses[i], defs[i]);
+        }
+
+        solve();
+    }
+
+    /**
+     * Compute the variables read before they are written and the variables
+     * written in block {@code b}.
+     */
+    private void computeUsesAndDefs(Block b, BitSet use, BitSet def) {
+        List<Node> nodes;
+        switch (b.getType()) {
+            case REGULAR_BLOCK:
+                nodes = ((RegularBlock) b).getContents();
+                break;
+            case EXCEPTION_BLOCK:
+                // The exceptional successors see the store before the node
+                // completes, so the block does not kill any variable.
+                Node node = ((ExceptionBlock) b).getNode();
+                addUses(node, use, null);
+                return;
+            default:
+                return;
+        }
+
+        for (Node node : nodes) {
+            addUses(node, use, def);
+            if (node instanceof AssignmentNode) {
+                Node target = ((AssignmentNode) node).getTarget();
+                if (target instanceof LocalVariableNode) {
+                    int var = variableNumber(((LocalVariableNode) target).getElement());
+                    if (var >= 0) {
+                        def.set(var);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addUses(Node node, BitSet use, BitSet def) {
+        if (node instanceof SynchronizedNode) {
+            // The monitor of the lock is released at the end of the block.
+            node = ((SynchronizedNode) node).getExpression();
+        } else if (node.isLValue()) {
+            return;
+        }
+        if (node instanceof LocalVariableNode) {
+            int var = variableNumber(((LocalVariableNode) node).getElement());
+            if (var >= 0 && (def == null || !def.get(var))) {
+                use.set(var);
+            }
+        }
+    }
+
+    /** Iterate liveIn = use + (liveOut - def) to a fixpoint. */
+    private void solve() {
+        int blocks = liveIn.length;
+        boolean changed = true;
+        BitSet out = new BitSet();
+        while (changed) {
+            changed = false;
+            // Visit the blocks backwards, roughly in reverse flow order.
+            for (int i = blocks - 1; i >= 0; i--) {
+                out.clear();
+                for (int succ : cfg.getSuccessorNumbers(i)) {
+                    out.or(liveIn[succ]);
+                }
+                out.andNot(defs[i]);
+                out.or(uses[i]);
+                if (!out.equals(liveIn[i])) {
+                    liveIn[i].clear();
+                    liveIn[i].or(out);
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of the variable {@code var}, or -1 if it is not
+     *         tracked.
+     */
+    private int variableNumber(Element var) {
+        Integer number = variableNumbers.get(var);
+        if (number != null) {
+            return number;
+        }
+        if (!isTracked(var)) {
+            return -1;
+        }
+        number = variables.size();
+        variables.add(var);
+        variableNumbers.put(var, number);
+        return number;
+    }
+
+    private boolean isTracked(Element var) {
+        switch (var.getKind()) {
+            case LOCAL_VARIABLE:
+            case EXCEPTION_PARAMETER:
+            case RESOURCE_VARIABLE:
+                return !captured.contains(var)
+                        && !namesInAnnotations.contains(var.getSimpleName().toString());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return True if the value of local variable {@code var} at the
+     *         beginning of block {@code b} is never read.
+     */
+    public boolean isDeadBefore(Block b, Element var) {
+        Integer number = variableNumbers.get(var);
+        if (number == null) {
+            // Either not tracked, or never read or written in the graph; in the
+            // latter case, the variable belongs to an enclosing method.
+            return false;
+        }
+        int block = cfg.getBlockNumber(b);
+        return block >= 0 && !liveIn[block].get(number);
+    }
+
+    /**
+     * @return The tracked local variables that are live at the beginning of
+     *         block {@code b}.
+     */
+    public Set<Element> getLiveBefore(Block b) {
+        int block = cfg.getBlockNumber(b);
+        if (block < 0) {
+            return Collections.emptySet();
+        }
+        Set<Element> result = new HashSet<>();
+        BitSet live = liveIn[block];
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+            result.add(variables.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return The local variables that are referenced within lambda
+     *         expressions and classes declared in {@code code}.
+     */
+    private static Set<Element> capturedVariables(Tree code) {
+        final Set<Element> result = new HashSet<>();
+        final TreeScanner<Void, Void> collector = new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitIdentifier(IdentifierTree node, Void p) {
+                Element elem = TreeUtils.elementFromUse(node);
+                if (elem != null && elem.getKind() != ElementKind.FIELD) {
+                    result.add(elem);
+                }
+                return null;
+            }
+        };
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitLambdaExpression(LambdaExpressionTree node, Void p) {
+                collector.scan(node, null);
+                return null;
+            }
+
+            @Override
+            public Void visitClass(ClassTree node, Void p) {
+                collector.scan(node, null);
+                return null;
+            }
+        }.scan(code, null);
+        return result;
+    }
+
+    /** Identifiers, such as the names of the local variables in a Java expression. */
+    private static final Pattern IDENTIFIER = Pattern.compile("[\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*");
+
+    /**
+     * @return The identifiers that occur in the string arguments of the
+     *         annotations in {@code code}.
+     */
+    private static Set<String> namesInAnnotations(Tree code) {
+        final Set<String> result = new HashSet<>();
+        final TreeScanner<Void, Void> collector = new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitLiteral(LiteralTree node, Void p) {
+                if (node.getKind() == Tree.Kind.STRING_LITERAL) {
+                    Matcher matcher = IDENTIFIER.matcher((String) node.getValue());
+                    while (matcher.find()) {
+                        result.add(matcher.group());
+                    }
+                }
+                return null;
+            }
+        };
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitAnnotation(AnnotationTree node, Void p) {
+                collector.scan(node.getArguments(), null);
+                return null;
+            }
+        }.scan(code, null);
+        return result;
+    }
+}
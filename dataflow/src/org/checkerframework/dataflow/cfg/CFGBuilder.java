@@ -775,6 +775,7 @@ public class CFGBuilder {
                 }
             }
 
+            cfg.finish();
             return cfg;
         }
 
@@ -17,18 +17,26 @@ import org.checkerframework.dataflow.cfg.block.SpecialBlockImpl;
 import org.checkerframework.dataflow.cfg.node.Node;
 import org.checkerframework.dataflow.cfg.node.ReturnNode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
 /**
  * A control flow graph (CFG for short) of a single method.
  *
+ * <p>
+ * Once the graph is built, {@link #finish()} numbers its blocks densely
+ * and computes the successor and predecessor indices and the depth-first
+ * order of the blocks once; the graph must not be modified afterwards.
+ *
  * @author Stefan Heule
  *
  */
@@ -65,6 +73,40 @@ public class ControlFlowGraph {
      */
     protected final List<ReturnNode> returnNodes;
 
+    /*
+     * The following fields are computed by finish().
+     */
+
+    /**
+     * All blocks of the graph, in breadth-first order from the entry block;
+     * the index of a block in this array is its number.
+     */
+    protected Block /*@Nullable*/ [] blocks;
+
+    /** The number of every block. */
+    protected IdentityHashMap<Block, Integer> blockNumbers;
+
+    /** The numbers of the successors of every block, by block number. */
+    protected int[][] successorNumbers;
+
+    /** The numbers of the (reachable) predecessors of every block, by block number. */
+    protected int[][] predecessorNumbers;
+
+    /** An unmodifiable view of {@link #blocks}. */
+    protected Set<Block> allBlocks;
+
+    /** The result of {@link #getDepthFirstOrderedBlocks()}, unmodifiable. */
+    protected List<Block> depthFirstOrderedBlocks;
+
+    /**
+     * The position of every block in {@link #depthFirstOrderedBlocks}, by
+     * block number; for blocks that occur more than once, the last position.
+     */
+    protected int[] depthFirstOrder;
+
+    /** An unmodifiable view of {@link #treeLookup}. */
+    protected Map<Tree, Node> readOnlyTreeLookup;
+
     public ControlFlowGraph(SpecialBlock entryBlock, SpecialBlockImpl regularExitBlock, SpecialBlockImpl exceptionalExitBlock, UnderlyingAST underlyingAST,
             IdentityHashMap<Tree, Node> treeLookup,
             IdentityHashMap<Tree, Node> convertedTreeLookup,
@@ -84,13 +126,122 @@ public class ControlFlowGraph {
      *         corresponds.
      */
     public Node getNodeCorrespondingToTree(Tree t) {
-        if (convertedTreeLookup.containsKey(t)) {
-            return convertedTreeLookup.get(t);
+        Node converted = convertedTreeLookup.get(t);
+        if (converted != null) {
+            return converted;
         } else {
             return treeLookup.get(t);
         }
     }
 
+    /**
+     * Number the blocks of the graph and compute the orders used by the
+     * analyses.  Called once the graph is complete (by the last phase of
+     * {@link CFGBuilder}); calling it again has no effect.
+     */
+    public void finish() {
+        if (blocks != null) {
+            return;
+        }
+
+        Set<Block> reachable = computeAllBlocks();
+        Block[] numbered = reachable.toArray(new Block[reachable.size()]);
+        IdentityHashMap<Block, Integer> numbers = new IdentityHashMap<>();
+        for (int i = 0; i < numbered.length; i++) {
+            numbers.put(numbered[i], i);
+        }
+
+        int[][] succs = new int[numbered.length][];
+        int[] predCounts = new int[numbered.length];
+        for (int i = 0; i < numbered.length; i++) {
+            Deque<Block> blockSuccs = getSuccessors(numbered[i]);
+            int[] indices = new int[blockSuccs.size()];
+            int j = 0;
+            for (Block succ : blockSuccs) {
+                indices[j] = numbers.get(succ);
+                predCounts[indices[j]]++;
+                j++;
+            }
+            succs[i] = indices;
+        }
+        int[][] preds = new int[numbered.length][];
+        for (int i = 0; i < numbered.length; i++) {
+            preds[i] = new int[predCounts[i]];
+            predCounts[i] = 0;
+        }
+        for (int i = 0; i < numbered.length; i++) {
+            for (int succ : succs[i]) {
+                preds[succ][predCounts[succ]++] = i;
+            }
+        }
+
+        List<Block> dfo = computeDepthFirstOrderedBlocks();
+        int[] order = new int[numbered.length];
+        int position = 1;
+        for (Block b : dfo) {
+            order[numbers.get(b)] = position++;
+        }
+
+        this.blockNumbers = numbers;
+        this.successorNumbers = succs;
+        this.predecessorNumbers = preds;
+        this.allBlocks = Collections.unmodifiableSet(reachable);
+        this.depthFirstOrderedBlocks = Collections.unmodifiableList(new ArrayList<>(dfo));
+        this.depthFirstOrder = order;
+        this.readOnlyTreeLookup = Collections.unmodifiableMap(treeLookup);
+        this.blocks = numbered;
+    }
+
+    /** @return The number of blocks of the graph. */
+    public int getNumberOfBlocks() {
+        finish();
+        return blocks.length;
+    }
+
+    /** @return The block with number {@code number}. */
+    public Block getBlock(int number) {
+        finish();
+        return blocks[number];
+    }
+
+    /**
+     * @return The number of block {@code b}, or -1 if {@code b} is not
+     *         a (reachable) block of this graph.
+     */
+    public int getBlockNumber(Block b) {
+        finish();
+        Integer number = blockNumbers.get(b);
+        return number == null ? -1 : number;
+    }
+
+    /**
+     * @return The numbers of the successors of the block with number
+     *         {@code number}, including its exceptional successors.
+     *         The result must not be modified.
+     */
+    public int[] getSuccessorNumbers(int number) {
+        finish();
+        return successorNumbers[number];
+    }
+
+    /**
+     * @return The numbers of the predecessors of the block with number
+     *         {@code number}.  The result must not be modified.
+     */
+    public int[] getPredecessorNumbers(int number) {
+        finish();
+        return predecessorNumbers[number];
+    }
+
+    /**
+     * @return The position of block {@code b} in
+     *         {@link #getDepthFirstOrderedBlocks()}, starting at 1.
+     */
+    public int getDepthFirstOrder(Block b) {
+        finish();
+        return depthFirstOrder[blockNumbers.get(b)];
+    }
+
     /** @return The entry block of the control flow graph. */
     public SpecialBlock getEntryBlock() {
         return entryBlock;
@@ -115,41 +266,25 @@ public class ControlFlowGraph {
 
     /**
      * @return The set of all basic block in this control flow graph.
+     *         Once the graph is finished, the set is unmodifiable.
      */
     public Set<Block> getAllBlocks() {
-        Set<Block> visited = new HashSet<>();
+        if (blocks != null) {
+            return allBlocks;
+        }
+        return computeAllBlocks();
+    }
+
+    private Set<Block> computeAllBlocks() {
+        Set<Block> visited = new LinkedHashSet<>();
         Queue<Block> worklist = new LinkedList<>();
         Block cur = entryBlock;
         visited.add(entryBlock);
 
         // traverse the whole control flow graph
-        while (true) {
-            if (cur == null)
-                break;
-
-            Queue<Block> succs = new LinkedList<>();
-            if (cur.getType() == BlockType.CONDITIONAL_BLOCK) {
-                ConditionalBlock ccur = ((ConditionalBlock) cur);
-                succs.add(ccur.getThenSuccessor());
-                succs.add(ccur.getElseSuccessor());
-            } else {
-                assert cur instanceof SingleSuccessorBlock;
-                Block b = ((SingleSuccessorBlock) cur).getSuccessor();
-                if (b != null) {
-                    succs.add(b);
-                }
-            }
-
-            if (cur.getType() == BlockType.EXCEPTION_BLOCK) {
-                ExceptionBlock ecur = (ExceptionBlock) cur;
-                for (Set<Block> exceptionSuccSet : ecur.getExceptionalSuccessors().values()) {
-                    succs.addAll(exceptionSuccSet);
-                }
-            }
-
-            for (Block b : succs) {
-                if (!visited.contains(b)) {
-                    visited.add(b);
+        while (cur != null) {
+            for (Block b : getSuccessors(cur)) {
+                if (visited.add(b)) {
                     worklist.add(b);
                 }
             }
@@ -163,10 +298,18 @@ public class ControlFlowGraph {
     /**
      * @return The list of all basic block in this control flow graph
      * in reversed depth-first postorder sequence.
+     * Once the graph is finished, the list is unmodifiable.
      *
      * Blocks may appear more than once in the sequence.
      */
     public List<Block> getDepthFirstOrderedBlocks() {
+        if (blocks != null) {
+            return depthFirstOrderedBlocks;
+        }
+        return computeDepthFirstOrderedBlocks();
+    }
+
+    private List<Block> computeDepthFirstOrderedBlocks() {
         List<Block> dfsOrderResult = new LinkedList<>();
         Set<Block> visited = new HashSet<>();
         Deque<Block> worklist = new LinkedList<>();
@@ -216,12 +359,22 @@ public class ControlFlowGraph {
     }
 
     /**
-     * @return The tree-lookup map.
+     * @return A copy of the tree-lookup map.
      */
     public IdentityHashMap<Tree, Node> getTreeLookup() {
         return new IdentityHashMap<>(treeLookup);
     }
 
+    /**
+     * @return An unmodifiable view of the tree-lookup map.
+     */
+    public Map<Tree, Node> getReadOnlyTreeLookup() {
+        if (readOnlyTreeLookup == null) {
+            readOnlyTreeLookup = Collections.unmodifiableMap(treeLookup);
+        }
+        return readOnlyTreeLookup;
+    }
+
     /**
      * Get the {@link MethodTree} of the CFG if the argument {@link Tree} maps
      * to a {@link Node} in the CFG or null otherwise.
@@ -9,6 +9,7 @@ import org.checkerframework.framework.qual.SubtypeOf;
 import org.checkerframework.framework.qual.TypeQualifiers;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
+import org.checkerframework.framework.type.DefaultTypeHierarchy;
 import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
 import org.checkerframework.framework.type.QualifierHierarchy;
 import org.checkerframework.framework.type.TypeHierarchy;
@@ -111,6 +112,10 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
             // Each checker should "support" all possible lint options - otherwise
             // subchecker A would complain about a lint option for subchecker B.
             checker.setSupportedLintOptions(this.getSupportedLintOptions());
+            if (hasOption("shareSubcheckerResults")
+                    && checker.getVisitor() != null) {
+                checker.getTypeFactory().publishResults();
+            }
         }
 
         super.initChecker();
@@ -455,9 +460,39 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
             checker.typeProcessingOver();
         }
 
+        if ("stats".equals(getOption("subtypeCache"))) {
+            printSubtypeCacheStatistics();
+        }
+        if (hasOption("slowMethods") && visitor instanceof BaseTypeVisitor) {
+            AnnotatedTypeFactory factory = ((BaseTypeVisitor<?>) visitor).getTypeFactory();
+            if (factory instanceof GenericAnnotatedTypeFactory) {
+                ((GenericAnnotatedTypeFactory<?, ?, ?, ?>) factory).printSlowMethods();
+            }
+        }
+
         super.typeProcessingOver();
     }
 
+    /**
+     * Reports how many subtype checks of this checker were answered from
+     * the subtype cache (-AsubtypeCache=stats).
+     */
+    protected void printSubtypeCacheStatistics() {
+        if (!(visitor instanceof BaseTypeVisitor)) {
+            return;
+        }
+        TypeHierarchy hierarchy = ((BaseTypeVisitor<?>) visitor).getTypeFactory().getTypeHierarchy();
+        if (!(hierarchy instanceof DefaultTypeHierarchy)) {
+            return;
+        }
+        long[] stats = ((DefaultTypeHierarchy) hierarchy).getSubtypeCacheStatistics();
+        if (stats != null) {
+            messager.printMessage(javax.tools.Diagnostic.Kind.NOTE,
+                    getClass().getSimpleName() + " subtype cache: " + stats[0] + " hits, "
+                    + stats[1] + " misses");
+        }
+    }
+
     @Override
     public Set<String> getSupportedOptions() {
         Set<String> options = new HashSet<String>();
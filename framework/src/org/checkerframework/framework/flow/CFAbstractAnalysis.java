@@ -2,7 +2,10 @@ package org.checkerframework.framework.flow;
 
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.dataflow.analysis.Analysis;
+import org.checkerframework.dataflow.analysis.LiveVariables;
 import org.checkerframework.dataflow.cfg.CFGDOTVisualizer;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.block.Block;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
@@ -78,6 +81,12 @@ public abstract class CFAbstractAnalysis<V extends CFAbstractValue<V>,
      */
     protected final List<Pair<VariableElement, V>> fieldValues;
 
+    /**
+     * The live local variables of the current control flow graph, or null if
+     * dead local variables are not removed from the stores.
+     */
+    protected /*@Nullable*/ LiveVariables liveVariables;
+
     public CFAbstractAnalysis(BaseTypeChecker checker,
             GenericAnnotatedTypeFactory<V, S, T, ? extends CFAbstractAnalysis<V, S, T>> factory,
             List<Pair<VariableElement, V>> fieldValues) {
@@ -89,12 +98,43 @@ public abstract class CFAbstractAnalysis<V extends CFAbstractValue<V>,
         this.checker = checker;
         transferFunction = createTransferFunction();
         this.fieldValues = fieldValues;
+        setCoalesceExceptionalEdges(checker.hasOption("coalesceExceptionalEdges"));
     }
 
     public List<Pair<VariableElement, V>> getFieldValues() {
         return fieldValues;
     }
 
+    @Override
+    protected void init(ControlFlowGraph cfg) {
+        super.init(cfg);
+        liveVariables = checker.hasOption("pruneDeadLocals")
+                ? new LiveVariables(cfg) : null;
+    }
+
+    /**
+     * Removes the local variables that are dead at the beginning of
+     * {@code b} from {@code s}, if the {@code pruneDeadLocals} option is
+     * given: their values are never read again, and dropping them keeps the
+     * stores small and their least upper bounds cheap.
+     */
+    @Override
+    protected S storeEnteringBlock(Block b, S s) {
+        if (liveVariables == null) {
+            return s;
+        }
+        return s.removeDeadLocals(liveVariables, b);
+    }
+
+    /**
+     * Returns an empty store, which holds no information about any
+     * expression, as the top of the lattice of stores.
+     */
+    @Override
+    protected S topStore(S s) {
+        return createEmptyStore(s.sequentialSemantics);
+    }
+
     /**
      * @return The transfer function to be used by the analysis.
      */
@@ -10,7 +10,9 @@ import org.checkerframework.dataflow.analysis.FlowExpressions.FieldAccess;
 import org.checkerframework.dataflow.analysis.FlowExpressions.LocalVariable;
 import org.checkerframework.dataflow.analysis.FlowExpressions.PureMethodCall;
 import org.checkerframework.dataflow.analysis.FlowExpressions.Receiver;
+import org.checkerframework.dataflow.analysis.LiveVariables;
 import org.checkerframework.dataflow.analysis.Store;
+import org.checkerframework.dataflow.cfg.block.Block;
 import org.checkerframework.dataflow.cfg.node.ArrayAccessNode;
 import org.checkerframework.dataflow.cfg.node.FieldAccessNode;
 import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
@@ -844,6 +846,24 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
         return analysis.createCopiedStore((S) this);
     }
 
+    /**
+     * Returns a store without the local variables that are dead at the
+     * beginning of block {@code b}, or this store if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    public S removeDeadLocals(LiveVariables live, Block b) {
+        S result = null;
+        for (Element local : localVariableValues.keySet()) {
+            if (live.isDeadBefore(b, local)) {
+                if (result == null) {
+                    result = copy();
+                }
+                result.localVariableValues.remove(local);
+            }
+        }
+        return result == null ? (S) this : result;
+    }
+
     @Override
     public S leastUpperBound(S other) {
         S newStore = analysis.createEmptyStore(sequentialSemantics);
@@ -7,12 +7,21 @@ import org.checkerframework.dataflow.cfg.UnderlyingAST;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.javacutil.AnnotationProvider;
 import org.checkerframework.javacutil.ErrorReporter;
+import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TreeUtils;
 
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.VariableElement;
 
@@ -41,6 +50,48 @@ public class CFCFGBuilder extends CFGBuilder {
     /** Type factory to provide types used during CFG building. */
     protected final AnnotatedTypeFactory factory;
 
+    /**
+     * The artificial trees created by the last run, with the method or
+     * class that encloses them.
+     */
+    protected final List<Pair<Tree, Element>> artificialTrees = new ArrayList<>();
+
+    /**
+     * For every assert statement translated by the last run, whether
+     * assertions were assumed to be enabled.
+     */
+    protected final Map<AssertTree, Boolean> assertDecisions = new IdentityHashMap<>();
+
+    /**
+     * For every declaration annotation looked up by the last run, such as
+     * {@code @TerminatesExecution} on an invoked method, whether the element
+     * has the annotation.  This depends on the stub files of the checker.
+     */
+    protected final Map<Pair<Element, Class<? extends Annotation>>, Boolean> declAnnotationLookups =
+            new HashMap<>();
+
+    /**
+     * Whether the last run used the annotated types of {@link #factory},
+     * which makes the graph specific to the checker.
+     */
+    protected boolean usedAnnotatedTypes;
+
+    public List<Pair<Tree, Element>> getArtificialTrees() {
+        return artificialTrees;
+    }
+
+    public Map<AssertTree, Boolean> getAssertDecisions() {
+        return assertDecisions;
+    }
+
+    public Map<Pair<Element, Class<? extends Annotation>>, Boolean> getDeclAnnotationLookups() {
+        return declAnnotationLookups;
+    }
+
+    public boolean usedAnnotatedTypes() {
+        return usedAnnotatedTypes;
+    }
+
     public CFCFGBuilder(BaseTypeChecker checker, AnnotatedTypeFactory factory) {
         super(checker.hasOption("assumeAssertionsAreEnabled"),
               checker.hasOption("assumeAssertionsAreDisabled"));
@@ -60,10 +111,15 @@ public class CFCFGBuilder extends CFGBuilder {
             UnderlyingAST underlyingAST) {
         declaredClasses.clear();
         declaredLambdas.clear();
+        artificialTrees.clear();
+        assertDecisions.clear();
+        declAnnotationLookups.clear();
+        usedAnnotatedTypes = false;
 
         CFTreeBuilder builder = new CFTreeBuilder(env);
         PhaseOneResult phase1result = new CFCFGTranslationPhaseOne().process(
-                root, env, underlyingAST, exceptionalExitLabel, builder, factory);
+                root, env, underlyingAST, exceptionalExitLabel, builder,
+                new RecordingAnnotationProvider());
         ControlFlowGraph phase2result = new CFGTranslationPhaseTwo()
                 .process(phase1result);
         ControlFlowGraph phase3result = CFGTranslationPhaseThree
@@ -91,14 +147,33 @@ public class CFCFGBuilder extends CFGBuilder {
         return false;
     }
 
+    /**
+     * Looks up annotations with {@link #factory} and records the lookups of
+     * declaration annotations in {@link #declAnnotationLookups}.
+     */
+    protected class RecordingAnnotationProvider implements AnnotationProvider {
+
+        @Override
+        public AnnotationMirror getDeclAnnotation(Element elt, Class<? extends Annotation> anno) {
+            AnnotationMirror result = factory.getDeclAnnotation(elt, anno);
+            declAnnotationLookups.put(Pair.<Element, Class<? extends Annotation>>of(elt, anno), result != null);
+            return result;
+        }
+
+        @Override
+        public AnnotationMirror getAnnotationMirror(Tree tree, Class<? extends Annotation> target) {
+            return factory.getAnnotationMirror(tree, target);
+        }
+    }
+
     public class CFCFGTranslationPhaseOne extends CFGTranslationPhaseOne {
 
         @Override
         protected boolean assumeAssertionsEnabledFor(AssertTree tree) {
-            if (assumeAssertionsActivatedForAssertTree(checker, tree)) {
-                return true;
-            }
-            return super.assumeAssertionsEnabledFor(tree);
+            boolean enabled = assumeAssertionsActivatedForAssertTree(checker, tree)
+                    || super.assumeAssertionsEnabledFor(tree);
+            assertDecisions.put(tree, enabled);
+            return enabled;
         }
 
         @Override
@@ -108,11 +183,13 @@ public class CFCFGBuilder extends CFGBuilder {
             if (enclosingMethod != null) {
                 Element methodElement = TreeUtils.elementFromDeclaration(enclosingMethod);
                 factory.setPathHack(tree, methodElement);
+                artificialTrees.add(Pair.of(tree, methodElement));
             } else {
                 ClassTree enclosingClass = TreeUtils.enclosingClass(getCurrentPath());
                 if (enclosingClass != null) {
                     Element classElement = TreeUtils.elementFromDeclaration(enclosingClass);
                     factory.setPathHack(tree, classElement);
+                    artificialTrees.add(Pair.of(tree, classElement));
                 }
             }
         }
@@ -121,6 +198,7 @@ public class CFCFGBuilder extends CFGBuilder {
         protected VariableTree createEnhancedForLoopIteratorVariable(MethodInvocationTree iteratorCall, VariableElement variableElement) {
             // We do not want to cache flow-insensitive types
             // retrieved during CFG building.
+            usedAnnotatedTypes = true;
             boolean oldShouldCache = factory.shouldCache;
             factory.shouldCache = false;
             AnnotatedTypeMirror annotatedIteratorType =
@@ -145,6 +223,7 @@ public class CFCFGBuilder extends CFGBuilder {
         protected VariableTree createEnhancedForLoopArrayVariable(ExpressionTree expression, VariableElement variableElement) {
             // We do not want to cache flow-insensitive types
             // retrieved during CFG building.
+            usedAnnotatedTypes = true;
             boolean oldShouldCache = factory.shouldCache;
             factory.shouldCache = false;
             AnnotatedTypeMirror annotatedArrayType =
@@ -0,0 +1,162 @@
+package org.checkerframework.framework.flow;
+
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.framework.type.AnnotatedTypeFactory;
+import org.checkerframework.javacutil.Pair;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+
+import com.sun.source.tree.AssertTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+
+/**
+ * The control flow graphs of the compilation unit that is currently
+ * checked, shared by all checkers of a compilation: a checker and its
+ * subcheckers, and the checkers of an aggregate checker, analyze the same
+ * code one after the other and would otherwise build the same graph
+ * several times.
+ *
+ * <p>
+ * A graph is only shared if it does not depend on the checker that built
+ * it: it must not contain annotated types (as the variables that
+ * {@link CFCFGBuilder} introduces for enhanced for loops do), and the
+ * checker that reuses it must make the same decisions about
+ * {@code @AssumeAssertion} strings and see the same declaration
+ * annotations, such as {@code @TerminatesExecution}, which may come from
+ * its stub files.  The artificial trees of a reused graph
+ * are registered with the type factory of the reusing checker.
+ *
+ * <p>
+ * Use {@link #instance(ProcessingEnvironment)} to obtain the cache of the
+ * current compilation.
+ */
+public class CFGCache {
+
+    /** The key of the cache in the compiler context. */
+    protected static final Context.Key<CFGCache> cfgCacheKey =
+            new Context.Key<CFGCache>();
+
+    /** The compilation unit of the cached graphs. */
+    private CompilationUnitTree root;
+
+    /** The cached graphs, by the code they represent. */
+    private final Map<Tree, SharedCFG> cfgs = new IdentityHashMap<>();
+
+    protected CFGCache() {
+    }
+
+    /**
+     * Returns the control flow graph cache of the current compilation.
+     */
+    public static CFGCache instance(ProcessingEnvironment env) {
+        Context context = ((JavacProcessingEnvironment) env).getContext();
+        CFGCache cache = context.get(cfgCacheKey);
+        if (cache == null) {
+            cache = new CFGCache();
+            context.put(cfgCacheKey, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the control flow graph of {@code ast}, which belongs to the
+     * compilation unit {@code root}, for the given checker.  The graph is
+     * taken from the cache if possible; otherwise it is built with
+     * {@code builder} and cached if it can be shared.
+     */
+    public SharedCFG getCFG(CompilationUnitTree root, UnderlyingAST ast,
+            BaseTypeChecker checker, AnnotatedTypeFactory factory,
+            CFCFGBuilder builder, ProcessingEnvironment env) {
+        Tree code = ast.getCode();
+        if (this.root != root) {
+            cfgs.clear();
+            this.root = root;
+        }
+        SharedCFG cached = cfgs.get(code);
+        if (cached != null && cached.isSharableWith(checker, factory)) {
+            for (Pair<Tree, Element> artificial : cached.artificialTrees) {
+                factory.setPathHack(artificial.first, artificial.second);
+            }
+            return cached;
+        }
+
+        ControlFlowGraph cfg = builder.run(root, env, ast);
+        SharedCFG result = new SharedCFG(cfg, builder, checker);
+        if (!builder.usedAnnotatedTypes()) {
+            cfgs.put(code, result);
+        }
+        return result;
+    }
+
+    /**
+     * A control flow graph together with the information about its
+     * construction that is needed to reuse it.
+     */
+    public static class SharedCFG {
+        public final ControlFlowGraph cfg;
+
+        /** The classes declared in the code of the graph. */
+        public final List<ClassTree> declaredClasses;
+
+        /** The lambda expressions declared in the code of the graph. */
+        public final List<LambdaExpressionTree> declaredLambdas;
+
+        private final List<Pair<Tree, Element>> artificialTrees;
+        private final Map<AssertTree, Boolean> assertDecisions;
+        private final Map<Pair<Element, Class<? extends Annotation>>, Boolean> declAnnotationLookups;
+        private final boolean assumeAssertionsEnabled;
+        private final boolean assumeAssertionsDisabled;
+
+        SharedCFG(ControlFlowGraph cfg, CFCFGBuilder builder, BaseTypeChecker checker) {
+            this.cfg = cfg;
+            this.declaredClasses = new ArrayList<>(builder.getDeclaredClasses());
+            this.declaredLambdas = new ArrayList<>(builder.getDeclaredLambdas());
+            this.artificialTrees = new ArrayList<>(builder.getArtificialTrees());
+            this.assertDecisions = new IdentityHashMap<>(builder.getAssertDecisions());
+            this.declAnnotationLookups = new HashMap<>(builder.getDeclAnnotationLookups());
+            this.assumeAssertionsEnabled = checker.hasOption("assumeAssertionsAreEnabled");
+            this.assumeAssertionsDisabled = checker.hasOption("assumeAssertionsAreDisabled");
+        }
+
+        /**
+         * Returns true if building the graph for {@code checker}, with
+         * {@code factory}, would have resulted in the same graph.
+         */
+        boolean isSharableWith(BaseTypeChecker checker, AnnotatedTypeFactory factory) {
+            if (assumeAssertionsEnabled != checker.hasOption("assumeAssertionsAreEnabled")
+                    || assumeAssertionsDisabled != checker.hasOption("assumeAssertionsAreDisabled")) {
+                return false;
+            }
+            for (Map.Entry<AssertTree, Boolean> decision : assertDecisions.entrySet()) {
+                boolean enabled = assumeAssertionsEnabled
+                        || CFCFGBuilder.assumeAssertionsActivatedForAssertTree(checker, decision.getKey());
+                if (enabled != decision.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<Pair<Element, Class<? extends Annotation>>, Boolean> lookup : declAnnotationLookups.entrySet()) {
+                Pair<Element, Class<? extends Annotation>> key = lookup.getKey();
+                boolean present = factory.getDeclAnnotation(key.first, key.second) != null;
+                if (present != lookup.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.checkerframework.framework.qual.TypeQualifiers;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.util.CFContext;
 import org.checkerframework.framework.util.OptionConfiguration;
+import org.checkerframework.framework.util.Profiler;
 import org.checkerframework.javacutil.AbstractTypeProcessor;
 import org.checkerframework.javacutil.AnnotationProvider;
 import org.checkerframework.javacutil.AnnotationUtils;
@@ -180,6 +181,52 @@ import com.sun.tools.javac.util.Log;
     "resolveReflection",
 
 
+    ///
+    /// Performance
+    ///
+
+    // Keep the expression types computed by subcheckers, so that the
+    // checkers depending on them do not compute them again.
+    // org.checkerframework.framework.type.GenericAnnotatedTypeFactory.publishResults
+    "shareSubcheckerResults",
+
+    // Cache the results of subtype checks of types without type variables;
+    // subtypeCache=stats also reports the hits and misses of the cache.
+    // org.checkerframework.framework.type.DefaultTypeHierarchy.isSubtype
+    "subtypeCache",
+
+    // Remove local variables from the dataflow stores once their values
+    // are no longer read, based on a liveness analysis of the CFG.
+    // org.checkerframework.framework.flow.CFAbstractAnalysis.storeEnteringBlock
+    "pruneDeadLocals",
+
+    // Propagate one store per exceptional successor of a block, and merge
+    // the stores at the exceptional exit only when needed.
+    // org.checkerframework.dataflow.analysis.Analysis.propagateCoalescedExceptionalStores
+    "coalesceExceptionalEdges",
+
+    // Record the time and memory spent in the phases of type-checking,
+    // per checker and compilation unit, and write them to the given file
+    // (profile=checker-profile.json); CSV unless the name ends in .json.
+    // org.checkerframework.framework.util.Profiler
+    "profile",
+
+    // Report the given number of slowest flow analyses of methods,
+    // initializers and lambdas, with their statistics (slowMethods=10)
+    // org.checkerframework.framework.type.GenericAnnotatedTypeFactory.printSlowMethods
+    "slowMethods",
+
+    // Warn about each method whose flow analysis takes more than the given
+    // number of milliseconds, or, optionally, more than the given number
+    // of fix-point iterations (flowBudget=500 or flowBudget=500,10000).
+    // With flowBudgetWidening, the stores of revisited blocks are then
+    // widened to top, which bounds the analysis at the cost of precision.
+    // org.checkerframework.framework.type.GenericAnnotatedTypeFactory.recordFlowStatistics
+    // org.checkerframework.dataflow.analysis.Analysis.setBudget
+    "flowBudget",
+    "flowBudgetWidening",
+
+
     ///
     /// Stub libraries
     ///
@@ -295,6 +342,9 @@ public abstract class SourceChecker
     /** The visitor to use. */
     protected SourceVisitor<?, ?> visitor;
 
+    /** The profiler of the compilation, or null without the profile option. */
+    protected /*@Nullable*/ Profiler profiler;
+
     /** Keys for warning suppressions specified on the command line */
     private String /*@Nullable*/ [] suppressWarnings;
 
@@ -750,6 +800,7 @@ public abstract class SourceChecker
         this.messages = getMessages();
 
         this.visitor = createSourceVisitor();
+        this.profiler = Profiler.forChecker(this);
 
         // TODO: hack to clear out static caches.
         // When the {@link org.checkerframework.qualframework.util.QualifierContext}
@@ -845,6 +896,9 @@ public abstract class SourceChecker
         }
 
         // Visit the attributed tree.
+        if (profiler != null) {
+            profiler.start(this, currentRoot, Profiler.CHECK);
+        }
         try {
             visitor.visit(p);
         } catch (CheckerError ce) {
@@ -855,7 +909,32 @@ public abstract class SourceChecker
             // Also add possibly deferred diagnostics, which will get published back in
             // AbstractTypeProcessor.
             this.errsOnLastExit = log.nerrors;
+            if (profiler != null) {
+                profiler.stop();
+            }
+        }
+    }
+
+    /**
+     * Writes the profile of the compilation, if the {@code profile} option
+     * is given.  The profile is shared by all checkers of the compilation and
+     * rewritten by each of them, so that the checker that finishes last
+     * writes the complete profile.
+     */
+    @Override
+    public void typeProcessingOver() {
+        if (profiler != null) {
+            String file = getOption("profile");
+            if (file == null || file.isEmpty()) {
+                file = "checker-profile.csv";
+            }
+            try {
+                profiler.write(file);
+            } catch (IOException e) {
+                messager.printMessage(Kind.WARNING, "Could not write profile to " + file + ": " + e.getMessage());
+            }
         }
+        super.typeProcessingOver();
     }
 
     private CheckerError wrapThrowableAsCheckerError(String where, Throwable t, /*@Nullable*/ TreePath p) {
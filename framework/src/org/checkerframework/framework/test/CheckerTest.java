@@ -17,10 +17,8 @@ import java.util.List;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.tools.Diagnostic;
-import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
 
 import org.junit.Assert;
 
@@ -85,33 +83,50 @@ abstract public class CheckerTest {
         for (String s : files)
             fileStrings.add(checkerDir + File.separator + s);
 
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        StandardJavaFileManager fileManager
-            = compiler.getStandardFileManager(null, null, null);
+        StandardJavaFileManager fileManager = TestInput.getFileManager();
         Iterable<? extends JavaFileObject> tests
             = fileManager.getJavaFileObjectsFromStrings(fileStrings);
 
+        if (TestInput.REUSE_COMPILER) {
+            // The checker pass reports the errors of invalid Java code as
+            // well, so a separate pure compilation is not needed.
+            TestRun run = TestInput.compileAndCheck(checkerDir, tests, checkerName, checkerOptions);
+            List<Diagnostic<?>> javaErrors = new ArrayList<Diagnostic<?>>();
+            for (Diagnostic<?> d : run) {
+                if (d.getKind() == Diagnostic.Kind.ERROR
+                        && !"compiler.err.proc.messager".equals(d.getCode())) {
+                    javaErrors.add(d);
+                }
+            }
+            if (!javaErrors.isEmpty()) {
+                invalidJavaCode(fileStrings, javaErrors);
+            }
+            return run;
+        }
+
         // files need to compile cleanly without any errors
         TestRun pureCompilation = TestInput.compileAndCheck(checkerDir, tests, null, Collections.<String>emptyList());
         if (!pureCompilation.getResult()) {
-            String message = "Java file is not valid Java code: " + fileStrings;
-            System.err.println(message);
-            for (Diagnostic<?> d : pureCompilation) {
-                System.err.println(d);
-            }
-            throw new IllegalArgumentException(message);
+            invalidJavaCode(fileStrings, pureCompilation);
         }
 
         return TestInput.compileAndCheck(checkerDir, tests, checkerName, checkerOptions);
     }
 
+    private static void invalidJavaCode(List<String> fileStrings, Iterable<? extends Diagnostic<?>> errors) {
+        String message = "Java file is not valid Java code: " + fileStrings;
+        System.err.println(message);
+        for (Diagnostic<?> d : errors) {
+            System.err.println(d);
+        }
+        throw new IllegalArgumentException(message);
+    }
+
     /**
      * Compiles and returns a TestRun.
      */
     protected TestRun getTest(File... files) {
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        StandardJavaFileManager fileManager
-            = compiler.getStandardFileManager(null, null, null);
+        StandardJavaFileManager fileManager = TestInput.getFileManager();
         Iterable<? extends JavaFileObject> tests
             = fileManager.getJavaFileObjects(files);
 
@@ -137,9 +152,7 @@ abstract public class CheckerTest {
     }
 
     protected static void test(final String checkerName, final List<String> checkerOptions, File ... javaFiles) {
-        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        StandardJavaFileManager fileManager
-                = compiler.getStandardFileManager(null, null, null);
+        StandardJavaFileManager fileManager = TestInput.getFileManager();
         Iterable<? extends JavaFileObject> tests
                 = fileManager.getJavaFileObjects(javaFiles);
 
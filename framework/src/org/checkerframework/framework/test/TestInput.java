@@ -16,6 +16,28 @@ public class TestInput {
 
     private static final boolean debug = false;
 
+    /**
+     * Whether one compiler and file manager are reused for all test
+     * compilations, instead of creating new ones per compilation, and
+     * whether the separate pass that checks that test files are valid Java
+     * code is skipped.  Set by the system property
+     * {@code tests.reuseCompiler}.  The tests still run one after the
+     * other: the checkers keep global state, such as the tables of
+     * {@link org.checkerframework.javacutil.AnnotationUtils}, that must not
+     * be shared by concurrent compilations.
+     */
+    public static final boolean REUSE_COMPILER = Boolean.getBoolean("tests.reuseCompiler");
+
+    /** The reused compiler, or {@code null} if it was not created yet. */
+    private static JavaCompiler sharedCompiler;
+
+    /**
+     * The reused file manager, or {@code null} if it was not created yet.
+     * It keeps the contents of the class path and boot class path cached
+     * between compilations.
+     */
+    private static StandardJavaFileManager sharedFileManager;
+
     private final JavaCompiler compiler;
 
     private final StandardJavaFileManager fileManager;
@@ -31,8 +53,8 @@ public class TestInput {
     private TestInput(String checkerDir, Iterable<? extends JavaFileObject> files,
                      Iterable<String> processors, List<String> options) {
 
-        this.compiler = ToolProvider.getSystemJavaCompiler();
-        this.fileManager = compiler.getStandardFileManager(null, null, null);
+        this.compiler = getCompiler();
+        this.fileManager = getFileManager();
 
         this.files = files;
         this.processors = processors;
@@ -79,6 +101,34 @@ public class TestInput {
         this.options.addAll(options);
     }
 
+    /**
+     * Returns the compiler for a test compilation: the reused one if
+     * compilers are reused, and a new one otherwise.
+     */
+    public static JavaCompiler getCompiler() {
+        if (!REUSE_COMPILER) {
+            return ToolProvider.getSystemJavaCompiler();
+        }
+        if (sharedCompiler == null) {
+            sharedCompiler = ToolProvider.getSystemJavaCompiler();
+        }
+        return sharedCompiler;
+    }
+
+    /**
+     * Returns the file manager for a test compilation: the reused one if
+     * compilers are reused, and a new one otherwise.
+     */
+    public static StandardJavaFileManager getFileManager() {
+        if (!REUSE_COMPILER) {
+            return getCompiler().getStandardFileManager(null, null, null);
+        }
+        if (sharedFileManager == null) {
+            sharedFileManager = getCompiler().getStandardFileManager(null, null, null);
+        }
+        return sharedFileManager;
+    }
+
     private static void ensureExistance(String path) {
         File file = new File(path);
         if (!file.exists())
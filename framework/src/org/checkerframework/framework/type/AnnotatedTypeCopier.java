@@ -104,8 +104,11 @@ public class AnnotatedTypeCopier implements AnnotatedTypeVisitor<AnnotatedTypeMi
             copy.setWasRaw();
         }
 
-        if (copy.enclosingType != null) {
-            copy.enclosingType = (AnnotatedDeclaredType) visit(original.enclosingType, originalToCopy);
+        // An enclosing type that was not created yet is created lazily by the copy, too.
+        if (original.enclosingTypeInitialized) {
+            copy.enclosingType = original.enclosingType == null ? null
+                    : (AnnotatedDeclaredType) visit(original.enclosingType, originalToCopy);
+            copy.enclosingTypeInitialized = true;
         }
 
         if (original.typeArgs != null) {
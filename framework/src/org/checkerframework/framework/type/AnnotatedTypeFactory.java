@@ -37,8 +37,10 @@ import org.checkerframework.framework.util.DefaultAnnotationFormatter;
 import org.checkerframework.framework.util.GraphQualifierHierarchy;
 import org.checkerframework.framework.util.MultiGraphQualifierHierarchy;
 import org.checkerframework.framework.util.MultiGraphQualifierHierarchy.MultiGraphFactory;
+import org.checkerframework.framework.util.Profiler;
 import org.checkerframework.framework.util.TreePathCacher;
 import org.checkerframework.framework.util.typeinference.DefaultTypeArgumentInference;
+import org.checkerframework.framework.util.typeinference.TypeArgInferenceUtil;
 import org.checkerframework.framework.util.typeinference.TypeArgumentInference;
 import org.checkerframework.javacutil.AnnotationProvider;
 import org.checkerframework.javacutil.AnnotationUtils;
@@ -232,6 +234,18 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      */
     protected final BaseTypeChecker checker;
 
+    /**
+     * The profiler of the compilation, or null if the checker does not
+     * have the {@code profile} option.
+     */
+    protected final /*@Nullable*/ Profiler profiler;
+
+    /**
+     * The number of running calls to {@code getAnnotatedType}, which call
+     * each other; only the outermost call is recorded by the profiler.
+     */
+    private int annotateDepth = 0;
+
     /**
      * Map from class name (canonical name) of an annotation, to the
      * annotation in the Checker Framework that will be used in its place.
@@ -284,6 +298,7 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
         this.elements = processingEnv.getElementUtils();
         this.types = processingEnv.getTypeUtils();
         this.visitorState = new VisitorState();
+        this.profiler = Profiler.forChecker(checker);
 
         this.supportedQuals = createSupportedTypeQualifiers();
 
@@ -329,7 +344,16 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
         initilizeReflectionResolution();
 
         if (this.getClass().equals(AnnotatedTypeFactory.class)) {
-            this.buildIndexTypes();
+            if (profiler != null) {
+                profiler.start(checker, null, Profiler.STUBS);
+            }
+            try {
+                this.buildIndexTypes();
+            } finally {
+                if (profiler != null) {
+                    profiler.stop();
+                }
+            }
         }
     }
 
@@ -626,6 +650,43 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     /** Mapping from a Tree to its TreePath **/
     private final TreePathCacher treePathCache = new TreePathCacher();
 
+    /** Size of LRU cache of method and constructor invocations. */
+    private final static int INVOCATION_CACHE_SIZE = 2000;
+
+    /**
+     * Mapping from a method or constructor invocation to the result of
+     * {@link #methodFromUse(MethodInvocationTree)} or
+     * {@link #constructorFromUse(NewClassTree)} for it, with the types the
+     * result was computed from.
+     */
+    private final Map<ExpressionTree, InvocationCacheEntry> invocationCache =
+            CollectionUtils.createLRUCache(INVOCATION_CACHE_SIZE);
+
+    /** Size of LRU caches of bound templates. */
+    private final static int BOUND_TEMPLATE_CACHE_SIZE = 1000;
+
+    /**
+     * Mapping from a type variable to a copy of its bounds as created by
+     * {@link BoundsInitializer#initializeBounds}, before any annotations were
+     * applied.  New uses of the type variable copy their bounds from here.
+     */
+    final Map<TypeVariable, AnnotatedTypeVariable> typeVarBoundTemplates =
+            CollectionUtils.createLRUCache(BOUND_TEMPLATE_CACHE_SIZE);
+
+    /**
+     * Mapping from a wildcard to a copy of its extends bound as created by
+     * {@link BoundsInitializer#initializeExtendsBound}.
+     */
+    final Map<WildcardType, AnnotatedWildcardType> wildcardExtendsTemplates =
+            CollectionUtils.createLRUCache(BOUND_TEMPLATE_CACHE_SIZE);
+
+    /**
+     * Mapping from a wildcard to a copy of its super bound as created by
+     * {@link BoundsInitializer#initializeSuperBound}.
+     */
+    final Map<WildcardType, AnnotatedWildcardType> wildcardSuperTemplates =
+            CollectionUtils.createLRUCache(BOUND_TEMPLATE_CACHE_SIZE);
+
     /**
      * Determines the annotated type of an element using
      * {@link #fromElement(Element)}.
@@ -641,10 +702,32 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
             ErrorReporter.errorAbort("AnnotatedTypeFactory.getAnnotatedType: null element");
             return null; // dead code
         }
-        AnnotatedTypeMirror type = fromElement(elt);
-        annotateInheritedFromClass(type);
-        annotateImplicit(elt, type);
-        return type;
+        startAnnotate();
+        try {
+            AnnotatedTypeMirror type = fromElement(elt);
+            annotateInheritedFromClass(type);
+            annotateImplicit(elt, type);
+            return type;
+        } finally {
+            stopAnnotate();
+        }
+    }
+
+    /**
+     * Starts the {@link Profiler#ANNOTATE} phase, unless a call to
+     * {@code getAnnotatedType} is already running.
+     */
+    private void startAnnotate() {
+        if (profiler != null && annotateDepth++ == 0) {
+            profiler.start(checker, root, Profiler.ANNOTATE);
+        }
+    }
+
+    /** Stops the phase started by the matching call to {@link #startAnnotate}. */
+    private void stopAnnotate() {
+        if (profiler != null && --annotateDepth == 0) {
+            profiler.stop();
+        }
     }
 
     @Override
@@ -686,26 +769,34 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
             ErrorReporter.errorAbort("AnnotatedTypeFactory.getAnnotatedType: null tree");
             return null; // dead code
         }
-        if (treeCache.containsKey(tree) && shouldReadCache) {
-            return treeCache.get(tree).deepCopy();
+        if (shouldReadCache) {
+            AnnotatedTypeMirror cached = treeCache.get(tree);
+            if (cached != null) {
+                return cached.deepCopy();
+            }
         }
 
         AnnotatedTypeMirror type;
-        if (TreeUtils.isClassTree(tree)) {
-            type = fromClass((ClassTree)tree);
-        } else if (tree.getKind() == Tree.Kind.METHOD ||
-                tree.getKind() == Tree.Kind.VARIABLE) {
-            type = fromMember(tree);
-        } else if (TreeUtils.isExpressionTree(tree)) {
-            tree = TreeUtils.skipParens((ExpressionTree)tree);
-            type = fromExpression((ExpressionTree) tree);
-        } else {
-            ErrorReporter.errorAbort(
-                    "AnnotatedTypeFactory.getAnnotatedType: query of annotated type for tree " + tree.getKind());
-            type = null; // dead code
-        }
+        startAnnotate();
+        try {
+            if (TreeUtils.isClassTree(tree)) {
+                type = fromClass((ClassTree)tree);
+            } else if (tree.getKind() == Tree.Kind.METHOD ||
+                    tree.getKind() == Tree.Kind.VARIABLE) {
+                type = fromMember(tree);
+            } else if (TreeUtils.isExpressionTree(tree)) {
+                tree = TreeUtils.skipParens((ExpressionTree)tree);
+                type = fromExpression((ExpressionTree) tree);
+            } else {
+                ErrorReporter.errorAbort(
+                        "AnnotatedTypeFactory.getAnnotatedType: query of annotated type for tree " + tree.getKind());
+                type = null; // dead code
+            }
 
-        annotateImplicit(tree, type);
+            annotateImplicit(tree, type);
+        } finally {
+            stopAnnotate();
+        }
 
         if (TreeUtils.isClassTree(tree) ||
             tree.getKind() == Tree.Kind.METHOD) {
@@ -771,8 +862,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      * @return the annotated type of the element
      */
     public AnnotatedTypeMirror fromElement(Element elt) {
-        if (elementCache.containsKey(elt) && shouldReadCache) {
-            return elementCache.get(elt).deepCopy();
+        if (shouldReadCache) {
+            AnnotatedTypeMirror cached = elementCache.get(elt);
+            if (cached != null) {
+                return cached.deepCopy();
+            }
         }
         if (elt.getKind() == ElementKind.PACKAGE)
             return toAnnotatedType(elt.asType(), false);
@@ -863,8 +957,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
             ErrorReporter.errorAbort("AnnotatedTypeFactory.fromMember: not a method or variable declaration: " + tree);
             return null; // dead code
         }
-        if (fromTreeCache.containsKey(tree) && shouldReadCache) {
-            return fromTreeCache.get(tree).deepCopy();
+        if (shouldReadCache) {
+            AnnotatedTypeMirror cached = fromTreeCache.get(tree);
+            if (cached != null) {
+                return cached.deepCopy();
+            }
         }
         AnnotatedTypeMirror result = TypeFromTree.fromMember(this, tree);
         annotateInheritedFromClass(result);
@@ -880,8 +977,12 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      * @return the annotated type of the expression
      */
     public AnnotatedTypeMirror fromExpression(ExpressionTree tree) {
-        if (fromTreeCache.containsKey(tree) && shouldReadCache)
-            return fromTreeCache.get(tree).deepCopy();
+        if (shouldReadCache) {
+            AnnotatedTypeMirror cached = fromTreeCache.get(tree);
+            if (cached != null) {
+                return cached.deepCopy();
+            }
+        }
 
         AnnotatedTypeMirror result = TypeFromTree.fromExpression(this, tree);
 
@@ -900,8 +1001,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      * @return the annotated type of the type in the AST
      */
     public AnnotatedTypeMirror fromTypeTree(Tree tree) {
-        if (fromTreeCache.containsKey(tree) && shouldReadCache) {
-            return fromTreeCache.get(tree).deepCopy();
+        if (shouldReadCache) {
+            AnnotatedTypeMirror cached = fromTreeCache.get(tree);
+            if (cached != null) {
+                return cached.deepCopy();
+            }
         }
 
         AnnotatedTypeMirror result = TypeFromTree.fromTypeTree(this, tree);
@@ -1509,13 +1613,85 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
         ExecutableElement methodElt = TreeUtils.elementFromUse(tree);
         AnnotatedTypeMirror receiverType = getReceiverType(tree);
 
+        boolean reflective = checker.shouldResolveReflection() && reflectionResolver.isReflectiveMethodInvocation(tree);
+        List<AnnotatedTypeMirror> fingerprint = null;
+        if (!reflective && shouldCache) {
+            fingerprint = invocationFingerprint(tree, methodElt, receiverType,
+                    tree.getTypeArguments(), tree.getArguments());
+            Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> cached = getCachedInvocation(tree, fingerprint);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> mfuPair =  methodFromUse(tree, methodElt, receiverType);
-        if (checker.shouldResolveReflection() && reflectionResolver.isReflectiveMethodInvocation(tree)) {
+        if (reflective) {
             mfuPair = reflectionResolver.resolveReflectiveCall(this, tree, mfuPair);
         }
+        if (fingerprint != null) {
+            invocationCache.put(tree, new InvocationCacheEntry(fingerprint, copyInvocationType(mfuPair)));
+        }
         return mfuPair;
     }
 
+    /**
+     * Returns the types that the type of the invoked method or constructor
+     * at {@code tree} depends on, besides the tree itself: the receiver type
+     * and, for a generic method whose type arguments are inferred, the types
+     * of the arguments and of the assignment context.
+     */
+    private List<AnnotatedTypeMirror> invocationFingerprint(ExpressionTree tree, ExecutableElement elt,
+            AnnotatedTypeMirror receiverType, List<? extends Tree> typeArgs,
+            List<? extends ExpressionTree> args) {
+        List<AnnotatedTypeMirror> fingerprint = new ArrayList<AnnotatedTypeMirror>();
+        fingerprint.add(receiverType);
+        if (!elt.getTypeParameters().isEmpty() && typeArgs.isEmpty()) {
+            for (ExpressionTree arg : args) {
+                fingerprint.add(getAnnotatedType(arg));
+            }
+            fingerprint.add(TypeArgInferenceUtil.assignedTo(this, getPath(tree)));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns a copy of the cached type of the invocation {@code tree}, or
+     * null if there is none for {@code fingerprint}.
+     */
+    private /*@Nullable*/ Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> getCachedInvocation(
+            ExpressionTree tree, List<AnnotatedTypeMirror> fingerprint) {
+        if (!shouldReadCache) {
+            return null;
+        }
+        InvocationCacheEntry entry = invocationCache.get(tree);
+        if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+            return null;
+        }
+        return copyInvocationType(entry.result);
+    }
+
+    /** Returns a deep copy of the type of an invoked method or constructor and its type arguments. */
+    private static Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> copyInvocationType(
+            Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> type) {
+        List<AnnotatedTypeMirror> typeargs = new LinkedList<AnnotatedTypeMirror>();
+        for (AnnotatedTypeMirror typearg : type.second) {
+            typeargs.add(typearg == null ? null : typearg.deepCopy());
+        }
+        return Pair.of(type.first.deepCopy(), typeargs);
+    }
+
+    /** A cached result of {@link #methodFromUse} or {@link #constructorFromUse}. */
+    private static class InvocationCacheEntry {
+        final List<AnnotatedTypeMirror> fingerprint;
+        final Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> result;
+
+        InvocationCacheEntry(List<AnnotatedTypeMirror> fingerprint,
+                Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+
     public Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> methodFromUse(ExpressionTree tree,
             ExecutableElement methodElt, AnnotatedTypeMirror receiverType) {
 
@@ -1606,10 +1782,26 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
         ExecutableElement ctor = InternalUtils.constructor(tree);
         AnnotatedTypeMirror type = fromNewClass(tree);
         annotateImplicit(tree.getIdentifier(), type);
+
+        boolean synthetic = !tree.getArguments().isEmpty()
+                && isSyntheticArgument(tree.getArguments().get(0));
+        List<AnnotatedTypeMirror> fingerprint = null;
+        if (shouldCache) {
+            fingerprint = invocationFingerprint(tree, ctor, type,
+                    tree.getTypeArguments(), tree.getArguments());
+            if (synthetic) {
+                fingerprint.add(getAnnotatedType(tree.getArguments().get(0)));
+            }
+            Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> cached = getCachedInvocation(tree, fingerprint);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         AnnotatedExecutableType con = AnnotatedTypes.asMemberOf(types, this, type, ctor);
 
         if (tree.getArguments().size() == con.getParameterTypes().size() + 1
-            && isSyntheticArgument(tree.getArguments().get(0))) {
+            && synthetic) {
             // happens for anonymous constructors of inner classes
             List<AnnotatedTypeMirror> actualParams = new ArrayList<AnnotatedTypeMirror>();
             actualParams.add(getAnnotatedType(tree.getArguments().get(0)));
@@ -1629,7 +1821,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
             con = (AnnotatedExecutableType) typeVarSubstitutor.substitute(typeVarMapping, con);
         }
 
-        return Pair.of(con, typeargs);
+        Pair<AnnotatedExecutableType, List<AnnotatedTypeMirror>> result = Pair.of(con, typeargs);
+        if (fingerprint != null) {
+            invocationCache.put(tree, new InvocationCacheEntry(fingerprint, copyInvocationType(result)));
+        }
+        return result;
     }
 
     /**
@@ -2396,9 +2592,10 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      *            The element for which to determine annotations.
      */
     public Set<AnnotationMirror> getDeclAnnotations(Element elt) {
-        if (cacheDeclAnnos.containsKey(elt)) {
+        Set<AnnotationMirror> cached = cacheDeclAnnos.get(elt);
+        if (cached != null) {
             //Found in cache, return result.
-            return cacheDeclAnnos.get(elt);
+            return cached;
         }
 
         Set<AnnotationMirror> results = AnnotationUtils.createAnnotationSet();
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ElementKind;
@@ -127,6 +128,29 @@ public abstract class AnnotatedTypeMirror {
     protected static final EqualityAtmComparer equalityComparer = new EqualityAtmComparer();
     protected static final HashcodeAtmVisitor hashcodeVisitor = new HashcodeAtmVisitor();
 
+    /**
+     * Counts the modifications of types that are part of a type with a cached
+     * hash code.  A cached hash code is valid as long as this counter has the
+     * value it had when the hash code was computed.
+     */
+    private static final AtomicLong hashedTypeModifications = new AtomicLong();
+
+    /** The cached result of {@link #hashCode()}. */
+    private int cachedHashCode;
+
+    /**
+     * The value of {@link #hashedTypeModifications} at which
+     * {@link #cachedHashCode} was computed, or -1 if there is none.
+     */
+    private volatile long cachedHashCodeModifications = -1;
+
+    /**
+     * True if this type was visited while computing a hash code, so that
+     * modifying it invalidates cached hash codes.  Set by
+     * {@link HashcodeAtmVisitor}.
+     */
+    boolean partOfHashCode = false;
+
     /** The factory to use for lazily creating annotated types. */
     protected final AnnotatedTypeFactory atypeFactory;
 
@@ -172,13 +196,52 @@ public abstract class AnnotatedTypeMirror {
             return false;
         }
 
-        return equalityComparer.visit(this, (AnnotatedTypeMirror) o, null);
+        final AnnotatedTypeMirror other = (AnnotatedTypeMirror) o;
+        if (actualType != other.actualType && !actualType.equals(other.actualType)) {
+            return false;
+        }
+
+        // Equal types have equal hash codes, so differing cached hash codes
+        // decide the comparison without visiting the types.
+        final long modifications = hashedTypeModifications.get();
+        if (cachedHashCodeModifications == modifications
+                && other.cachedHashCodeModifications == modifications
+                && cachedHashCode != other.cachedHashCode) {
+            return false;
+        }
+
+        return equalityComparer.visit(this, other, null);
     }
 
+    /**
+     * Returns a structural hash code, which is computed once and then cached
+     * until this type, or any other type that is part of a type with a cached
+     * hash code, is modified.
+     */
     @Pure
     @Override
     public final int hashCode() {
-        return hashcodeVisitor.visit(this);
+        final long modifications = hashedTypeModifications.get();
+        if (cachedHashCodeModifications == modifications) {
+            return cachedHashCode;
+        }
+
+        final int result = hashcodeVisitor.visit(this);
+        // If a type was modified during the computation, the counter has moved
+        // on and the result will be recomputed on the next call.
+        cachedHashCode = result;
+        cachedHashCodeModifications = modifications;
+        return result;
+    }
+
+    /**
+     * Must be called whenever the annotations or the component types of this
+     * type change; invalidates cached hash codes that depend on this type.
+     */
+    final void modified() {
+        if (partOfHashCode) {
+            hashedTypeModifications.incrementAndGet();
+        }
     }
 
     /**
@@ -532,7 +595,9 @@ public abstract class AnnotatedTypeMirror {
             ErrorReporter.errorAbort("AnnotatedTypeMirror.addAnnotation: null is not a valid annotation.");
         }
         if (atypeFactory.isSupportedQualifier(a)) {
-            this.annotations.add(a);
+            if (this.annotations.add(a)) {
+                modified();
+            }
         } else {
             AnnotationMirror aliased = atypeFactory.aliasedAnnotation(a);
             if (atypeFactory.isSupportedQualifier(aliased)) {
@@ -617,6 +682,7 @@ public abstract class AnnotatedTypeMirror {
         // It's currently necessary for the IGJ Checker and Lock Checker.
         AnnotationMirror anno = getAnnotation(AnnotationUtils.annotationName(a));
         if (anno != null) {
+            modified();
             return annotations.remove(anno);
         } else {
             return false;
@@ -686,7 +752,10 @@ public abstract class AnnotatedTypeMirror {
      * and similar methods.
      */
     public void clearAnnotations() {
-        annotations.clear();
+        if (!annotations.isEmpty()) {
+            modified();
+            annotations.clear();
+        }
     }
 
     @SideEffectFree
@@ -788,9 +857,12 @@ public abstract class AnnotatedTypeMirror {
          */
         private boolean wasRaw;
 
-        /** The enclosing Type **/
+        /** The enclosing Type, created lazily by getEnclosingType **/
         protected AnnotatedDeclaredType enclosingType;
 
+        /** Whether enclosingType has been created or set. */
+        /*default-visibility*/ boolean enclosingTypeInitialized = false;
+
         protected List<AnnotatedDeclaredType> supertypes = null;
 
         private boolean declaration;
@@ -809,10 +881,10 @@ public abstract class AnnotatedTypeMirror {
             wasRaw = !declty.getTypeArguments().isEmpty() &&
                       type.getTypeArguments().isEmpty();
 
+            // The enclosing type is only created when it is first requested,
+            // as most declared types are never asked for it.
             TypeMirror encl = type.getEnclosingType();
-            if (encl.getKind() == TypeKind.DECLARED) {
-                this.enclosingType = (AnnotatedDeclaredType) createType(encl, atypeFactory, true);
-            } else if (encl.getKind() != TypeKind.NONE) {
+            if (encl.getKind() != TypeKind.DECLARED && encl.getKind() != TypeKind.NONE) {
                 ErrorReporter.errorAbort("AnnotatedDeclaredType: unsupported enclosing type: " +
                         type.getEnclosingType() + " (" + encl.getKind() + ")");
             }
@@ -889,6 +961,7 @@ public abstract class AnnotatedTypeMirror {
                     typeArgs = Collections.unmodifiableList(uses);
                 }
             }
+            modified();
         }
 
         /**
@@ -964,7 +1037,9 @@ public abstract class AnnotatedTypeMirror {
                 new AnnotatedDeclaredType(getUnderlyingType(), atypeFactory, declaration);
             if (copyAnnotations)
                 type.addAnnotations(annotations);
-            type.setEnclosingType(getEnclosingType());
+            if (enclosingTypeInitialized) {
+                type.setEnclosingType(enclosingType);
+            }
             type.setTypeArguments(getTypeArguments());
             return type;
         }
@@ -1034,6 +1109,8 @@ public abstract class AnnotatedTypeMirror {
          */
         /*default-visibility*/ void setEnclosingType(AnnotatedDeclaredType enclosingType) {
             this.enclosingType = enclosingType;
+            this.enclosingTypeInitialized = true;
+            modified();
         }
 
         /**
@@ -1043,6 +1120,13 @@ public abstract class AnnotatedTypeMirror {
          * @return enclosingType the enclosing type
          */
         public AnnotatedDeclaredType getEnclosingType() {
+            if (!enclosingTypeInitialized) {
+                TypeMirror encl = ((DeclaredType) actualType).getEnclosingType();
+                if (encl.getKind() == TypeKind.DECLARED) {
+                    enclosingType = (AnnotatedDeclaredType) createType(encl, atypeFactory, true);
+                }
+                enclosingTypeInitialized = true;
+            }
             return enclosingType;
         }
     }
@@ -1131,6 +1215,7 @@ public abstract class AnnotatedTypeMirror {
                 List<? extends AnnotatedTypeMirror> params) {
             paramTypes.clear();
             paramTypes.addAll(params);
+            modified();
         }
 
         /**
@@ -1151,6 +1236,7 @@ public abstract class AnnotatedTypeMirror {
          */
         void setReturnType(AnnotatedTypeMirror returnType) {
             this.returnType = returnType;
+            modified();
         }
 
         /**
@@ -1181,6 +1267,7 @@ public abstract class AnnotatedTypeMirror {
          */
         void setReceiverType(AnnotatedDeclaredType receiverType) {
             this.receiverType = receiverType;
+            modified();
         }
 
         /**
@@ -1220,6 +1307,7 @@ public abstract class AnnotatedTypeMirror {
                 List<? extends AnnotatedTypeMirror> thrownTypes) {
             this.throwsTypes.clear();
             this.throwsTypes.addAll(thrownTypes);
+            modified();
         }
 
         /**
@@ -1242,6 +1330,7 @@ public abstract class AnnotatedTypeMirror {
         void setTypeVariables(List<AnnotatedTypeVariable> types) {
             typeVarTypes.clear();
             typeVarTypes.addAll(types);
+            modified();
         }
 
         /**
@@ -1362,6 +1451,7 @@ public abstract class AnnotatedTypeMirror {
         public
         void setComponentType(AnnotatedTypeMirror type) {
             this.componentType = type;
+            modified();
         }
 
         /**
@@ -1495,6 +1585,7 @@ public abstract class AnnotatedTypeMirror {
             if (type != null)
                 type = type.asUse();
             this.lowerBound = type;
+            modified();
         }
 
         /**
@@ -1502,6 +1593,7 @@ public abstract class AnnotatedTypeMirror {
          */
         void setLowerBoundField(AnnotatedTypeMirror type) {
             this.lowerBound = type;
+            modified();
         }
 
         /**
@@ -1595,6 +1687,7 @@ public abstract class AnnotatedTypeMirror {
                                        + "type=" + type);
             }
             this.upperBound = type;
+            modified();
         }
 
         /**
@@ -1603,6 +1696,7 @@ public abstract class AnnotatedTypeMirror {
          */
         void setUpperBoundField(final AnnotatedTypeMirror type) {
             this.upperBound = type;
+            modified();
         }
 
         /**
@@ -1888,6 +1982,7 @@ public abstract class AnnotatedTypeMirror {
             if (type != null)
                 type = type.asUse();
             this.superBound = type;
+            modified();
         }
 
         public AnnotatedTypeMirror getSuperBoundField() {
@@ -1919,6 +2014,7 @@ public abstract class AnnotatedTypeMirror {
                 type = type.asUse();
 
             this.extendsBound = type;
+            modified();
         }
 
         public AnnotatedTypeMirror getExtendsBoundField() {
@@ -2082,6 +2178,7 @@ public abstract class AnnotatedTypeMirror {
 
         void setDirectSuperTypes(List<AnnotatedDeclaredType> supertypes) {
             this.supertypes = new ArrayList<AnnotatedDeclaredType>(supertypes);
+            modified();
         }
     }
 
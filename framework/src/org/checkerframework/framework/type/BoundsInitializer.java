@@ -13,12 +13,14 @@ import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcard
 import org.checkerframework.framework.type.visitor.AnnotatedTypeVisitor;
 import org.checkerframework.framework.util.PluginUtil;
 import org.checkerframework.javacutil.ErrorReporter;
+import org.checkerframework.javacutil.InternalUtils;
 import org.checkerframework.javacutil.TypesUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -53,13 +55,25 @@ public class BoundsInitializer {
     public static void initializeBounds(final AnnotatedTypeVariable typeVar) {
         final Set<AnnotationMirror> annos = saveAnnotations(typeVar);
 
-        InitializerVisitor visitor = new InitializerVisitor(new TypeVariableStructure(null, typeVar));
-        visitor.initializeLowerBound(typeVar);
-        visitor.resolveTypeVarReferences(typeVar);
+        final Map<TypeVariable, AnnotatedTypeVariable> templates = typeVarTemplates(typeVar);
+        final AnnotatedTypeVariable template = readTemplate(templates, typeVar.getUnderlyingType(), typeVar);
+        if (template != null) {
+            final IdentityHashMap<AnnotatedTypeMirror, AnnotatedTypeMirror> originalToCopy = templateToUse(template, typeVar);
+            final AnnotatedTypeCopier copier = new AnnotatedTypeCopier();
+            typeVar.setLowerBoundField(copier.visit(template.getLowerBoundField(), originalToCopy));
+            typeVar.setUpperBoundField(copier.visit(template.getUpperBoundField(), originalToCopy));
 
-        InitializerVisitor visitor2 = new InitializerVisitor(new TypeVariableStructure(null, typeVar));
-        visitor2.initializeUpperBound(typeVar);
-        visitor2.resolveTypeVarReferences(typeVar);
+        } else {
+            InitializerVisitor visitor = new InitializerVisitor(new TypeVariableStructure(null, typeVar));
+            visitor.initializeLowerBound(typeVar);
+            visitor.resolveTypeVarReferences(typeVar);
+
+            InitializerVisitor visitor2 = new InitializerVisitor(new TypeVariableStructure(null, typeVar));
+            visitor2.initializeUpperBound(typeVar);
+            visitor2.resolveTypeVarReferences(typeVar);
+
+            writeTemplate(templates, typeVar.getUnderlyingType(), typeVar);
+        }
 
         restoreAnnotations(typeVar, annos);
     }
@@ -101,9 +115,19 @@ public class BoundsInitializer {
     public static void initializeSuperBound( final AnnotatedWildcardType wildcard ) {
         final Set<AnnotationMirror> annos = saveAnnotations(wildcard);
 
-        InitializerVisitor visitor = new InitializerVisitor(new WildcardStructure());
-        visitor.initializeSuperBound(wildcard);
-        visitor.resolveTypeVarReferences(wildcard);
+        final Map<WildcardType, AnnotatedWildcardType> templates =
+                wildcard.atypeFactory == null ? null : wildcard.atypeFactory.wildcardSuperTemplates;
+        final AnnotatedWildcardType template = readTemplate(templates, wildcard.getUnderlyingType(), wildcard);
+        if (template != null) {
+            wildcard.setSuperBound(new AnnotatedTypeCopier().visit(template.getSuperBoundField(),
+                                                                   templateToUse(template, wildcard)));
+        } else {
+            InitializerVisitor visitor = new InitializerVisitor(new WildcardStructure());
+            visitor.initializeSuperBound(wildcard);
+            visitor.resolveTypeVarReferences(wildcard);
+
+            writeTemplate(templates, wildcard.getUnderlyingType(), wildcard);
+        }
 
         restoreAnnotations(wildcard, annos);
     }
@@ -117,12 +141,76 @@ public class BoundsInitializer {
     public static void initializeExtendsBound( final AnnotatedWildcardType wildcard ) {
         final Set<AnnotationMirror> annos = saveAnnotations(wildcard);
 
-        InitializerVisitor visitor = new InitializerVisitor(new WildcardStructure());
-        visitor.initializeExtendsBound(wildcard);
-        visitor.resolveTypeVarReferences(wildcard);
+        final Map<WildcardType, AnnotatedWildcardType> templates =
+                wildcard.atypeFactory == null ? null : wildcard.atypeFactory.wildcardExtendsTemplates;
+        final AnnotatedWildcardType template = readTemplate(templates, wildcard.getUnderlyingType(), wildcard);
+        if (template != null) {
+            wildcard.setExtendsBound(new AnnotatedTypeCopier().visit(template.getExtendsBoundField(),
+                                                                     templateToUse(template, wildcard)));
+        } else {
+            InitializerVisitor visitor = new InitializerVisitor(new WildcardStructure());
+            visitor.initializeExtendsBound(wildcard);
+            visitor.resolveTypeVarReferences(wildcard);
+
+            writeTemplate(templates, wildcard.getUnderlyingType(), wildcard);
+        }
+
         restoreAnnotations(wildcard, annos);
     }
 
+    //==================================================================================================================
+    //Bound templates
+    //==================================================================================================================
+    //
+    // Creating the bounds of a type variable or wildcard, especially recursive ones like <E extends Comparable<E>>,
+    // is expensive and happens for every use of a generic library type.  The bounds only depend on the underlying
+    // type, so after the first initialization an unannotated copy of the result is kept in the AnnotatedTypeFactory
+    // as a template.  Later uses of the same underlying type copy their bounds from the template, which preserves
+    // the cycles of recursive bounds without searching for them again.  The annotations of the use are then applied
+    // by the caller exactly as for freshly initialized bounds.
+
+    /**
+     * @return The bound templates of the type variables of typeVar's factory, or null if templates cannot be
+     *         used for typeVar.  Captured type variables are not cached, as each of them is only used a few times.
+     */
+    private static Map<TypeVariable, AnnotatedTypeVariable> typeVarTemplates(final AnnotatedTypeVariable typeVar) {
+        if (typeVar.atypeFactory == null || InternalUtils.isCaptured(typeVar.getUnderlyingType())) {
+            return null;
+        }
+        return typeVar.atypeFactory.typeVarBoundTemplates;
+    }
+
+    private static <K extends TypeMirror, V extends AnnotatedTypeMirror> V readTemplate(
+            final Map<K, V> templates, final K key, final AnnotatedTypeMirror use) {
+        if (templates == null || !use.atypeFactory.shouldReadCache) {
+            return null;
+        }
+        return templates.get(key);
+    }
+
+    /**
+     * Stores an unannotated copy of the just initialized bounds of type.  Must be called before the
+     * annotations of type are restored.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends TypeMirror, V extends AnnotatedTypeMirror> void writeTemplate(
+            final Map<K, V> templates, final K key, final V type) {
+        if (templates != null && type.atypeFactory.shouldCache) {
+            templates.put(key, (V) type.deepCopy());
+        }
+    }
+
+    /**
+     * @return The initial mapping for copying the bounds of template into use: references to the template itself,
+     *         as in recursive bounds, become references to use
+     */
+    private static IdentityHashMap<AnnotatedTypeMirror, AnnotatedTypeMirror> templateToUse(
+            final AnnotatedTypeMirror template, final AnnotatedTypeMirror use) {
+        final IdentityHashMap<AnnotatedTypeMirror, AnnotatedTypeMirror> originalToCopy = new IdentityHashMap<>();
+        originalToCopy.put(template, use);
+        return originalToCopy;
+    }
+
     //==================================================================================================================
     //Classes and methods used to make the above static helper methods work
     //==================================================================================================================
@@ -380,6 +468,7 @@ public class BoundsInitializer {
                     }
                 }
                 declaredType.typeArgs = Collections.unmodifiableList(typeArgs);
+                declaredType.modified();
             } else {
 
                 final List<AnnotatedTypeMirror> typeArgs = new ArrayList<>(declaredType.getTypeArguments());
@@ -392,6 +481,7 @@ public class BoundsInitializer {
                 }
 
                 declaredType.typeArgs = Collections.unmodifiableList(typeArgReplacements);
+                declaredType.modified();
             }
         }
 
@@ -984,6 +1074,7 @@ public class BoundsInitializer {
             typeArgs.add(argIndex, replacement);
             typeArgs.remove(argIndex + 1);
             parentAdt.typeArgs = typeArgs;
+            parentAdt.modified();
         }
 
         @Override
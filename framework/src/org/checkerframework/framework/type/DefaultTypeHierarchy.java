@@ -14,7 +14,9 @@ import org.checkerframework.framework.type.visitor.VisitHistory;
 import org.checkerframework.framework.util.AnnotatedTypes;
 import org.checkerframework.framework.util.AtmCombo;
 import org.checkerframework.framework.util.PluginUtil;
-import org.checkerframework.framework.util.TypeArgumentMapper;
+import org.checkerframework.framework.util.SupertypePaths;
+import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.ErrorReporter;
 import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TypesUtils;
@@ -23,10 +25,12 @@ import static org.checkerframework.framework.util.AnnotatedTypes.isDeclarationOf
 import static org.checkerframework.framework.util.AnnotatedTypes.isEnum;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.lang.model.element.AnnotationMirror;
@@ -114,6 +118,23 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Visit
     // passing annotations to qualifierHierarchy.
     protected AnnotationMirror currentTop;
 
+    /** The maximum number of entries of {@link #subtypeCache}. */
+    protected static final int SUBTYPE_CACHE_SIZE = 1000;
+
+    /**
+     * The results of top-level subtype checks, keyed by a fingerprint of both types
+     * and the hierarchy; null unless the -AsubtypeCache option is given.
+     * See {@link SubtypeQuery}.
+     */
+    protected final Map<SubtypeQuery, Boolean> subtypeCache;
+
+    /** Ids of the annotations that occur in the fingerprints of subtypeCache. */
+    private final Map<AnnotationMirror, Integer> annotationIds;
+
+    /** Statistics of subtypeCache. */
+    private long cacheHits = 0;
+    private long cacheMisses = 0;
+
     public DefaultTypeHierarchy(final BaseTypeChecker checker, final QualifierHierarchy qualifierHierarchy,
                          boolean ignoreRawTypes, boolean invariantArrayComponents) {
         this(checker, qualifierHierarchy, ignoreRawTypes, invariantArrayComponents, false);
@@ -137,6 +158,14 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Visit
         this.ignoreRawTypes = ignoreRawTypes;
         this.invariantArrayComponents = invariantArrayComponents;
         this.covariantTypeArgs = covariantTypeArgs;
+
+        if (checker != null && checker.hasOption("subtypeCache")) {
+            this.subtypeCache = CollectionUtils.createLRUCache(SUBTYPE_CACHE_SIZE);
+            this.annotationIds = AnnotationUtils.createAnnotationMap();
+        } else {
+            this.subtypeCache = null;
+            this.annotationIds = null;
+        }
     }
 
     /**
@@ -167,7 +196,161 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Visit
     public boolean isSubtype(final AnnotatedTypeMirror subtype, final AnnotatedTypeMirror supertype,
                              final AnnotationMirror top) {
         currentTop = top;
-        return isSubtype(subtype, supertype, new VisitHistory());
+        if (subtypeCache == null) {
+            return isSubtype(subtype, supertype, new VisitHistory());
+        }
+
+        final SubtypeQuery query = fingerprint(subtype, supertype, top);
+        if (query != null) {
+            Boolean cached = subtypeCache.get(query);
+            if (cached != null) {
+                cacheHits++;
+                return cached;
+            }
+            cacheMisses++;
+        }
+
+        boolean result = isSubtype(subtype, supertype, new VisitHistory());
+        if (query != null) {
+            subtypeCache.put(query, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of subtype checks answered from the subtype cache and
+     * the number of checks that had to be computed, or null if the -AsubtypeCache
+     * option is not given.
+     */
+    public /*@Nullable*/ long[] getSubtypeCacheStatistics() {
+        if (subtypeCache == null) {
+            return null;
+        }
+        return new long[] { cacheHits, cacheMisses };
+    }
+
+    /**
+     * Returns the key of the check subtype {@literal <:} supertype in the hierarchy
+     * of top, or null if the check should not be cached.
+     */
+    private /*@Nullable*/ SubtypeQuery fingerprint(final AnnotatedTypeMirror subtype,
+                                                   final AnnotatedTypeMirror supertype,
+                                                   final AnnotationMirror top) {
+        final List<Object> parts = new ArrayList<>();
+        parts.add(annotationId(top));
+        if (!fingerprint(subtype, parts) || !fingerprint(supertype, parts)) {
+            return null;
+        }
+        return new SubtypeQuery(parts.toArray());
+    }
+
+    /**
+     * Appends the fingerprint of type to parts: the underlying type (by identity) and
+     * the ids of the annotations at every position.  Types whose subtyping depends on
+     * more than their structure, such as type variables, have no fingerprint.
+     *
+     * @return false if the type cannot be fingerprinted
+     */
+    private boolean fingerprint(final AnnotatedTypeMirror type, final List<Object> parts) {
+        if (type == null) {
+            return false;
+        }
+
+        parts.add(type.getUnderlyingType());
+        for (AnnotationMirror anno : type.getAnnotations()) {
+            parts.add(annotationId(anno));
+        }
+        parts.add(SubtypeQuery.END);
+
+        switch (type.getKind()) {
+            case DECLARED:
+                final AnnotatedDeclaredType declared = (AnnotatedDeclaredType) type;
+                if (declared.wasRaw()) {
+                    parts.add(SubtypeQuery.RAW);
+                }
+                for (AnnotatedTypeMirror typeArg : declared.getTypeArguments()) {
+                    if (!fingerprint(typeArg, parts)) {
+                        return false;
+                    }
+                }
+                return true;
+
+            case ARRAY:
+                return fingerprint(((AnnotatedArrayType) type).getComponentType(), parts);
+
+            case WILDCARD:
+                final AnnotatedWildcardType wildcard = (AnnotatedWildcardType) type;
+                return fingerprint(wildcard.getExtendsBound(), parts)
+                    && fingerprint(wildcard.getSuperBound(), parts);
+
+            case NULL:
+                return true;
+
+            default:
+                return type.getKind().isPrimitive();
+        }
+    }
+
+    private Integer annotationId(final AnnotationMirror anno) {
+        Integer id = annotationIds.get(anno);
+        if (id == null) {
+            id = annotationIds.size();
+            annotationIds.put(anno, id);
+        }
+        return id;
+    }
+
+    /**
+     * A fingerprint of a subtype check.  The underlying type mirrors are compared by identity,
+     * the annotation ids and markers by value.
+     */
+    protected static final class SubtypeQuery {
+        /** Marks the end of the annotations of a type. */
+        static final Integer END = -1;
+        /** Marks a raw type. */
+        static final Integer RAW = -2;
+
+        private final Object[] parts;
+        private final int hashCode;
+
+        SubtypeQuery(Object[] parts) {
+            this.parts = parts;
+            int hash = 1;
+            for (Object part : parts) {
+                hash = 31 * hash + (part instanceof Integer ? part.hashCode() : System.identityHashCode(part));
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SubtypeQuery)) {
+                return false;
+            }
+            final SubtypeQuery other = (SubtypeQuery) o;
+            if (hashCode != other.hashCode || parts.length != other.parts.length) {
+                return false;
+            }
+            for (int i = 0; i < parts.length; i++) {
+                final Object part = parts[i];
+                final Object otherPart = other.parts[i];
+                if (part != otherPart
+                        && !(part instanceof Integer && part.equals(otherPart))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "SubtypeQuery" + Arrays.toString(parts);
+        }
     }
 
     /**
@@ -887,9 +1070,9 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Visit
                     && !declaredSubtype.getTypeArguments().isEmpty()) {
 
                 Set<Pair<Integer, Integer>> typeArgMap =
-                        TypeArgumentMapper.mapTypeArgumentIndices(
+                        SupertypePaths.instance(declaredSubtype.atypeFactory.getProcessingEnv()).mapTypeArgumentIndices(
                                 (TypeElement) declaredSubtype.getUnderlyingType().asElement(),
-                                (TypeElement) declaredAsSuper.getUnderlyingType().asElement(), types);
+                                (TypeElement) declaredAsSuper.getUnderlyingType().asElement());
 
                 if (typeArgMap.size() == declaredSubtype.getTypeArguments().size()) {
 
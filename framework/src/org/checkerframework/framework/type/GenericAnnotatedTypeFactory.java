@@ -5,11 +5,13 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 */
 
 import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.analysis.AbstractValue;
 import org.checkerframework.dataflow.analysis.AnalysisResult;
+import org.checkerframework.dataflow.analysis.AnalysisStatistics;
+import org.checkerframework.dataflow.analysis.BackwardAnalysis;
+import org.checkerframework.dataflow.analysis.BackwardAnalysisResult;
 import org.checkerframework.dataflow.analysis.TransferInput;
 import org.checkerframework.dataflow.analysis.TransferResult;
-import org.checkerframework.dataflow.cfg.CFGBuilder;
-import org.checkerframework.dataflow.cfg.ControlFlowGraph;
 import org.checkerframework.dataflow.cfg.UnderlyingAST;
 import org.checkerframework.dataflow.cfg.UnderlyingAST.CFGLambda;
 import org.checkerframework.dataflow.cfg.UnderlyingAST.CFGMethod;
@@ -22,6 +24,8 @@ import org.checkerframework.framework.flow.CFAbstractTransfer;
 import org.checkerframework.framework.flow.CFAbstractValue;
 import org.checkerframework.framework.flow.CFAnalysis;
 import org.checkerframework.framework.flow.CFCFGBuilder;
+import org.checkerframework.framework.flow.CFGCache;
+import org.checkerframework.framework.flow.CFGCache.SharedCFG;
 import org.checkerframework.framework.flow.CFStore;
 import org.checkerframework.framework.flow.CFTransfer;
 import org.checkerframework.framework.flow.CFValue;
@@ -32,6 +36,7 @@ import org.checkerframework.framework.qual.DefaultQualifierInHierarchy;
 import org.checkerframework.framework.qual.ImplicitFor;
 import org.checkerframework.framework.qual.MonotonicQualifier;
 import org.checkerframework.framework.qual.Unqualified;
+import org.checkerframework.framework.source.Result;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedExecutableType;
 import org.checkerframework.framework.type.treeannotator.ImplicitsTreeAnnotator;
@@ -42,9 +47,11 @@ import org.checkerframework.framework.type.typeannotator.ImplicitsTypeAnnotator;
 import org.checkerframework.framework.type.typeannotator.ListTypeAnnotator;
 import org.checkerframework.framework.type.typeannotator.PropagationTypeAnnotator;
 import org.checkerframework.framework.type.typeannotator.TypeAnnotator;
+import org.checkerframework.framework.util.Profiler;
 import org.checkerframework.framework.util.QualifierPolymorphism;
 import org.checkerframework.framework.util.defaults.QualifierDefaults;
 import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.ErrorReporter;
 import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TreeUtils;
@@ -125,6 +132,54 @@ public abstract class GenericAnnotatedTypeFactory<
     /** An empty store. */
     private Store emptyStore;
 
+    /**
+     * The slowest flow analyses so far, slowest first, or {@code null} if
+     * the -AslowMethods command-line option is not given.
+     */
+    private final /*@Nullable*/ List<SlowMethod> slowMethods;
+
+    /** The number of analyses reported by -AslowMethods. */
+    private final int slowMethodsLimit;
+
+    /**
+     * The time in nanoseconds and the number of fix-point iterations after
+     * which the flow analysis of a method is reported, or 0 if unlimited.
+     * See the -AflowBudget command-line option.
+     */
+    private final long flowTimeBudget;
+    private final long flowIterationBudget;
+
+    /**
+     * Does the flow analysis of a method widen its stores to top once it
+     * exceeds the budget?  See the -AflowBudgetWidening command-line option.
+     */
+    private final boolean flowBudgetWidening;
+
+    /** The number of expression types kept by {@link #publishedTypes}. */
+    private final static int PUBLISHED_TYPES_SIZE = 5000;
+
+    /**
+     * The final types of the expressions of the current compilation unit,
+     * or {@code null} if this factory does not publish its results.
+     * See {@link #publishResults}.
+     */
+    private /*@Nullable*/ Map<Tree, PublishedType> publishedTypes = null;
+
+    /**
+     * A type in {@link #publishedTypes}, with the tree of the assignment
+     * context it was computed in, which may influence type argument
+     * inference.
+     */
+    private static class PublishedType {
+        final /*@Nullable*/ Tree context;
+        final AnnotatedTypeMirror type;
+
+        PublishedType(/*@Nullable*/ Tree context, AnnotatedTypeMirror type) {
+            this.context = context;
+            this.type = type;
+        }
+    }
+
     /**
      * Creates a type factory for checking the given compilation unit with
      * respect to the given annotation.
@@ -146,6 +201,20 @@ public abstract class GenericAnnotatedTypeFactory<
         this.initializationStore = null;
         this.initializationStaticStore = null;
 
+        if (checker.hasOption("slowMethods")) {
+            String limit = checker.getOption("slowMethods");
+            this.slowMethods = new ArrayList<>();
+            this.slowMethodsLimit = (limit == null || limit.isEmpty()) ? 10 : parseFlowOption("slowMethods", limit);
+        } else {
+            this.slowMethods = null;
+            this.slowMethodsLimit = 0;
+        }
+        String budgetOption = checker.getOption("flowBudget");
+        String[] budget = (budgetOption == null || budgetOption.isEmpty()) ? new String[] {"0"} : budgetOption.split(",", 2);
+        this.flowTimeBudget = parseFlowOption("flowBudget", budget[0]) * 1000000L;
+        this.flowIterationBudget = budget.length > 1 ? parseFlowOption("flowBudget", budget[1]) : 0;
+        this.flowBudgetWidening = checker.hasOption("flowBudgetWidening");
+
         // Add common aliases.
         // addAliasedDeclAnnotation(checkers.nullness.quals.Pure.class,
         //         Pure.class, AnnotationUtils.fromClass(elements, Pure.class));
@@ -164,7 +233,16 @@ public abstract class GenericAnnotatedTypeFactory<
 
         this.poly = createQualifierPolymorphism();
 
-        this.buildIndexTypes();
+        if (profiler != null) {
+            profiler.start(checker, null, Profiler.STUBS);
+        }
+        try {
+            this.buildIndexTypes();
+        } finally {
+            if (profiler != null) {
+                profiler.stop();
+            }
+        }
     }
 
     /**
@@ -178,6 +256,20 @@ public abstract class GenericAnnotatedTypeFactory<
     }
 
 
+    /** Parses the non-negative number {@code value} of option {@code option}. */
+    private int parseFlowOption(String option, String value) {
+        try {
+            int result = Integer.parseInt(value.trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        ErrorReporter.errorAbort("GenericAnnotatedTypeFactory: illegal value for -A" + option + ": " + value);
+        return 0; // dead code
+    }
+
     @Override
     public void setRoot(/*@Nullable*/ CompilationUnitTree root) {
         super.setRoot(root);
@@ -189,6 +281,55 @@ public abstract class GenericAnnotatedTypeFactory<
         this.returnStatementStores = null;
         this.initializationStore = null;
         this.initializationStaticStore = null;
+        if (this.publishedTypes != null) {
+            this.publishedTypes.clear();
+        }
+    }
+
+    /**
+     * Makes this factory keep the types of the expressions of the current
+     * compilation unit once their flow analysis is finished.  The checkers
+     * that depend on this factory's checker then read them instead of
+     * computing them again, and so does this checker's own visitor.
+     *
+     * BaseTypeChecker calls this for the factories of its subcheckers if the
+     * -AshareSubcheckerResults option is given.
+     */
+    public void publishResults() {
+        if (publishedTypes == null) {
+            publishedTypes = CollectionUtils.createLRUCache(PUBLISHED_TYPES_SIZE);
+        }
+    }
+
+    /**
+     * Returns the published type of an expression, see {@link #publishResults},
+     * or computes it and publishes it if its flow analysis is finished.
+     * Types are not published while flow refinement is turned off, as they
+     * differ from the final types.
+     */
+    @Override
+    public AnnotatedTypeMirror getAnnotatedType(Tree tree) {
+        if (publishedTypes == null || !useFlow
+                || tree == null || !TreeUtils.isExpressionTree(tree)) {
+            return super.getAnnotatedType(tree);
+        }
+
+        Pair<Tree, AnnotatedTypeMirror> assignmentContext = visitorState.getAssignmentContext();
+        Tree context = assignmentContext == null ? null : assignmentContext.first;
+        if (shouldReadCache) {
+            PublishedType published = publishedTypes.get(tree);
+            if (published != null && published.context == context) {
+                return published.type.deepCopy();
+            }
+        }
+
+        AnnotatedTypeMirror type = super.getAnnotatedType(tree);
+        // While an analysis runs, the value of the tree may still change.
+        if (shouldCache && analyses.isEmpty()
+                && flowResult != null && flowResult.getValue(tree) != null) {
+            publishedTypes.put(tree, new PublishedType(context, type.deepCopy()));
+        }
+        return type;
     }
 
     // **********************************************************************
@@ -335,6 +476,13 @@ public abstract class GenericAnnotatedTypeFactory<
         return ret;
     }
 
+    /**
+     * @return the {@link QualifierDefaults} of this factory
+     */
+    public QualifierDefaults getQualifierDefaults() {
+        return defaults;
+    }
+
     /**
      * Create {@link QualifierDefaults} which handles user specified defaults
      * @return the QualifierDefaults class
@@ -681,12 +829,45 @@ public abstract class GenericAnnotatedTypeFactory<
         analyze(queue, lambdaQueue, ast, fieldValues, currentClass, isInitializationCode, isStatic, null);
     }
 
+    /**
+     * Returns the control flow graph of {@code ast}.  The graph is shared
+     * with the other checkers of this compilation (see {@link CFGCache}),
+     * so that it is built only once per method.
+     */
+    protected SharedCFG buildCFG(UnderlyingAST ast) {
+        if (profiler != null) {
+            profiler.start(checker, root, Profiler.CFG);
+        }
+        try {
+            return CFGCache.instance(processingEnv).getCFG(root, ast, checker, this,
+                    new CFCFGBuilder(checker, this), processingEnv);
+        } finally {
+            if (profiler != null) {
+                profiler.stop();
+            }
+        }
+    }
+
+    /**
+     * Performs the backward analysis {@code analysis} on the control flow
+     * graph of {@code ast}, which is the same graph that the flow analysis
+     * of this factory uses.  Afterwards, further results, such as the store
+     * at the entry of the graph, can be queried from {@code analysis}.
+     *
+     * @return The result of {@code analysis}
+     */
+    public <A extends AbstractValue<A>, S extends org.checkerframework.dataflow.analysis.Store<S>>
+            BackwardAnalysisResult<A, S> performBackwardAnalysis(UnderlyingAST ast,
+            BackwardAnalysis<A, S, ?> analysis) {
+        analysis.performAnalysis(buildCFG(ast).cfg);
+        return analysis.getResult();
+    }
+
     protected void analyze(Queue<ClassTree> queue, Queue<Pair<LambdaExpressionTree, Store>> lambdaQueue, UnderlyingAST ast,
             List<Pair<VariableElement, Value>> fieldValues, ClassTree currentClass,
             boolean isInitializationCode, boolean isStatic,
             Store lambdaStore) {
-        CFGBuilder builder = new CFCFGBuilder(checker, this);
-        ControlFlowGraph cfg = builder.run(root, processingEnv, ast);
+        SharedCFG cfg = buildCFG(ast);
         FlowAnalysis newAnalysis = createFlowAnalysis(fieldValues);
         if (emptyStore == null) {
             emptyStore = newAnalysis.createEmptyStore(!checker.hasOption("concurrentSemantics"));
@@ -707,8 +888,135 @@ public abstract class GenericAnnotatedTypeFactory<
                 }
             }
         }
-        analyses.getFirst().performAnalysis(cfg);
-        AnalysisResult<Value, Store> result = analyses.getFirst().getResult();
+        performAnalysis(newAnalysis, cfg);
+
+        storeFlowResult(ast, newAnalysis);
+        recordFlowStatistics(ast, newAnalysis);
+
+        if (isInitializationCode) {
+            Store newInitStore = analyses.getFirst().getRegularExitStore();
+            if (isStatic) {
+                initializationStore = newInitStore;
+            } else {
+                initializationStaticStore = newInitStore;
+            }
+        }
+
+        if (checker.hasOption("flowdotdir")) {
+            outputFlowDotFile(ast, newAnalysis);
+        }
+
+        analyses.removeFirst();
+
+        // add classes declared in method
+        queue.addAll(cfg.declaredClasses);
+        for (LambdaExpressionTree lambda : cfg.declaredLambdas) {
+            lambdaQueue.add(Pair.of(lambda, getStoreBefore(lambda)));
+        }
+    }
+
+    /**
+     * Records the work done by the flow analysis of {@code ast} for the
+     * -AslowMethods report, and warns if it exceeded the -AflowBudget.
+     */
+    protected void recordFlowStatistics(UnderlyingAST ast, FlowAnalysis analysis) {
+        AnalysisStatistics statistics = analysis.getStatistics();
+        Tree code = ast.getCode();
+
+        if (statistics.isBudgetExceeded()) {
+            checker.report(Result.warning("flow.budget.exceeded", describeFlowAST(ast), statistics), code);
+        }
+
+        if (slowMethods != null) {
+            long line = root.getLineMap().getLineNumber(
+                    trees.getSourcePositions().getStartPosition(root, code));
+            SlowMethod method = new SlowMethod(describeFlowAST(ast),
+                    root.getSourceFile().getName() + ":" + line, statistics);
+            int index = 0;
+            while (index < slowMethods.size()
+                    && slowMethods.get(index).statistics.getNanos() >= statistics.getNanos()) {
+                index++;
+            }
+            if (index < slowMethodsLimit) {
+                slowMethods.add(index, method);
+                if (slowMethods.size() > slowMethodsLimit) {
+                    slowMethods.remove(slowMethodsLimit);
+                }
+            }
+        }
+    }
+
+    /** Returns a short description of {@code ast}, such as the name of the method. */
+    private static String describeFlowAST(UnderlyingAST ast) {
+        switch (ast.getKind()) {
+        case METHOD:
+            CFGMethod method = (CFGMethod) ast;
+            return "method " + method.getClassTree().getSimpleName() + "." + method.getMethod().getName();
+        case LAMBDA:
+            return "lambda expression";
+        default:
+            return "initializer";
+        }
+    }
+
+    /**
+     * Prints the slowest flow analyses of this factory, with their source
+     * positions and statistics, if the -AslowMethods option is given.
+     */
+    public void printSlowMethods() {
+        if (slowMethods == null) {
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append(checker.getClass().getSimpleName()).append(": ")
+              .append(slowMethods.size()).append(" slowest flow analyses");
+        for (SlowMethod method : slowMethods) {
+            report.append(System.lineSeparator())
+                  .append("  ").append(method.position)
+                  .append(" ").append(method.description)
+                  .append(": ").append(method.statistics);
+        }
+        processingEnv.getMessager().printMessage(javax.tools.Diagnostic.Kind.NOTE, report.toString());
+    }
+
+    /** A flow analysis in the -AslowMethods report. */
+    private static class SlowMethod {
+        final String description;
+        final String position;
+        final AnalysisStatistics statistics;
+
+        SlowMethod(String description, String position, AnalysisStatistics statistics) {
+            this.description = description;
+            this.position = position;
+            this.statistics = statistics;
+        }
+    }
+
+    /**
+     * Performs {@code analysis} on {@code cfg} within the -AflowBudget, and
+     * records the time for the profile option.
+     */
+    private void performAnalysis(FlowAnalysis analysis, SharedCFG cfg) {
+        analysis.setBudget(flowIterationBudget, flowTimeBudget, flowBudgetWidening);
+        if (profiler != null) {
+            profiler.start(checker, root, Profiler.DATAFLOW);
+        }
+        try {
+            analysis.performAnalysis(cfg.cfg);
+        } finally {
+            if (profiler != null) {
+                profiler.stop();
+            }
+        }
+    }
+
+    /**
+     * Store the result of a finished analysis of {@code ast} in
+     * {@link #flowResult}, {@link #regularExitStores} and
+     * {@link #returnStatementStores}.
+     */
+    protected void storeFlowResult(UnderlyingAST ast, FlowAnalysis analysis) {
+        AnalysisResult<Value, Store> result = analysis.getResult();
 
         // store result
         flowResult.combine(result);
@@ -716,15 +1024,14 @@ public abstract class GenericAnnotatedTypeFactory<
             // store exit store (for checking postconditions)
             CFGMethod mast = (CFGMethod) ast;
             MethodTree method = mast.getMethod();
-            Store regularExitStore = analyses.getFirst().getRegularExitStore();
+            Store regularExitStore = analysis.getRegularExitStore();
             if (regularExitStore != null) {
                 regularExitStores.put(method, regularExitStore);
             }
-            returnStatementStores.put(method, analyses.getFirst()
-                    .getReturnStatementStores());
+            returnStatementStores.put(method, analysis.getReturnStatementStores());
         } else if (ast.getKind() == UnderlyingAST.Kind.ARBITRARY_CODE) {
             CFGStatement block = (CFGStatement) ast;
-            Store regularExitStore = analyses.getFirst().getRegularExitStore();
+            Store regularExitStore = analysis.getRegularExitStore();
             if (regularExitStore != null) {
                 regularExitStores.put(block.getCode(), regularExitStore);
             }
@@ -732,44 +1039,27 @@ public abstract class GenericAnnotatedTypeFactory<
             // TODO: Postconditions?
 
             CFGLambda block = (CFGLambda) ast;
-            Store regularExitStore = analyses.getFirst().getRegularExitStore();
+            Store regularExitStore = analysis.getRegularExitStore();
             if (regularExitStore != null) {
                 regularExitStores.put(block.getCode(), regularExitStore);
             }
         }
+    }
 
-        if (isInitializationCode) {
-            Store newInitStore = analyses.getFirst().getRegularExitStore();
-            if (isStatic) {
-                initializationStore = newInitStore;
-            } else {
-                initializationStaticStore = newInitStore;
-            }
-        }
-
-        if (checker.hasOption("flowdotdir")) {
-
-            String checkerName = checker.getClass().getSimpleName();
-            if (checkerName.endsWith("Checker") || checkerName.endsWith("checker")) {
-                checkerName = checkerName.substring(0, checkerName.length() - "checker".length());
-            }
-
-            String dotfilename = checker.getOption("flowdotdir") + "/"
-                    + dotOutputFileName(ast) + "_" + checkerName + ".dot";
-            // make path safe for Windows
-            dotfilename = dotfilename.replace("<", "_").replace(">", "");
-            System.err.println("Output to DOT file: " + dotfilename);
-            boolean verbose = checker.hasOption("verbosecfg");
-            analyses.getFirst().outputToDotFile(dotfilename, verbose);
+    /** Output the control flow graph of {@code ast} to the -Aflowdotdir directory. */
+    protected void outputFlowDotFile(UnderlyingAST ast, FlowAnalysis analysis) {
+        String checkerName = checker.getClass().getSimpleName();
+        if (checkerName.endsWith("Checker") || checkerName.endsWith("checker")) {
+            checkerName = checkerName.substring(0, checkerName.length() - "checker".length());
         }
 
-        analyses.removeFirst();
-
-        // add classes declared in method
-        queue.addAll(builder.getDeclaredClasses());
-        for (LambdaExpressionTree lambda : builder.getDeclaredLambdas()) {
-            lambdaQueue.add(Pair.of(lambda, getStoreBefore(lambda)));
-        }
+        String dotfilename = checker.getOption("flowdotdir") + "/"
+                + dotOutputFileName(ast) + "_" + checkerName + ".dot";
+        // make path safe for Windows
+        dotfilename = dotfilename.replace("<", "_").replace(">", "");
+        System.err.println("Output to DOT file: " + dotfilename);
+        boolean verbose = checker.hasOption("verbosecfg");
+        analysis.outputToDotFile(dotfilename, verbose);
     }
 
     /** @return The file name used for DOT output. */
@@ -1,6 +1,9 @@
 package org.checkerframework.framework.type;
 
 import org.checkerframework.framework.type.visitor.AnnotatedTypeScanner;
+import org.checkerframework.javacutil.AnnotationUtils;
+
+import javax.lang.model.element.AnnotationMirror;
 
 /**
  * Computes the hashcode of an AnnotatedTypeMirror using the underlying type and
@@ -20,6 +23,11 @@ public class HashcodeAtmVisitor extends AnnotatedTypeScanner<Integer, Void> {
      */
     @Override
     protected Integer scan(AnnotatedTypeMirror type, Void v) {
+        if (type != null) {
+            // Modifications of this type now invalidate cached hash codes,
+            // see AnnotatedTypeMirror.modified.
+            type.partOfHashCode = true;
+        }
         return reduce(super.scan(type, null), generateHashcode(type));
     }
 
@@ -52,8 +60,14 @@ public class HashcodeAtmVisitor extends AnnotatedTypeScanner<Integer, Void> {
             return null;
         }
 
-        return type.getAnnotations().toString().hashCode() * 17
-             + type.getUnderlyingType().toString().hashCode() * 13;
+        // Only the annotation names are used, which is consistent with
+        // AnnotationUtils.areSame and avoids building strings for each type.
+        int annotationsHash = 0;
+        for (AnnotationMirror anno : type.annotations) {
+            annotationsHash += AnnotationUtils.annotationName(anno).hashCode();
+        }
+        return annotationsHash * 17
+             + type.getUnderlyingType().hashCode() * 13;
     }
 
 }
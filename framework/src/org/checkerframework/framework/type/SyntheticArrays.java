@@ -36,6 +36,7 @@ public class SyntheticArrays {
         final AnnotatedExecutableType method =
             (AnnotatedExecutableType) newReturnType.atypeFactory.getAnnotatedType(methodElem);
         method.returnType = newReturnType;
+        method.modified();
         return method;
     }
 }
@@ -23,6 +23,7 @@ import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.ElementUtils;
 import org.checkerframework.javacutil.ErrorReporter;
 import org.checkerframework.javacutil.InternalUtils;
+import org.checkerframework.javacutil.OverrideIndex;
 import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TypesUtils;
 
@@ -99,10 +100,12 @@ public class AnnotatedTypes {
     private static class AsSuperTypeVisitor extends SimpleAnnotatedTypeVisitor<AnnotatedTypeMirror, AnnotatedTypeMirror> {
         private final Types types;
         private final AnnotatedTypeFactory atypeFactory;
+        private final SupertypePaths paths;
 
         AsSuperTypeVisitor(Types types, AnnotatedTypeFactory atypeFactory) {
             this.types = types;
             this.atypeFactory = atypeFactory;
+            this.paths = SupertypePaths.instance(atypeFactory.getProcessingEnv());
         }
 
         @Override
@@ -185,6 +188,10 @@ public class AnnotatedTypes {
             if (shouldStop(p, type))
                 return type;
 
+            if (p.getKind() == TypeKind.DECLARED) {
+                return asDeclaredSuper(type, (AnnotatedDeclaredType) p);
+            }
+
             // Visit the superclass first!
             for (AnnotatedDeclaredType st : type.directSuperTypes()) {
                 if (st.getKind() == TypeKind.DECLARED) {
@@ -204,6 +211,47 @@ public class AnnotatedTypes {
             return null;
         }
 
+        /**
+         * Searches the direct supertypes of {@code type} for {@code p}.
+         * Whether, and through which direct supertype, {@code p} is reached
+         * only depends on the two elements, so the first search records the
+         * step in {@link SupertypePaths} and later searches only substitute
+         * along the recorded path.
+         */
+        private AnnotatedTypeMirror asDeclaredSuper(AnnotatedDeclaredType type, AnnotatedDeclaredType p) {
+            TypeElement typeElement = (TypeElement) type.getUnderlyingType().asElement();
+            TypeElement superElement = (TypeElement) p.getUnderlyingType().asElement();
+
+            TypeElement step = paths.getAsSuperStep(typeElement, superElement);
+            if (step == typeElement) {
+                return null;
+            }
+
+            List<AnnotatedDeclaredType> directSuperTypes = type.directSuperTypes();
+            if (step != null) {
+                for (AnnotatedDeclaredType st : directSuperTypes) {
+                    if (st.getKind() == TypeKind.DECLARED
+                            && st.getUnderlyingType().asElement().equals(step)) {
+                        return asSuper(types, atypeFactory, st, p);
+                    }
+                }
+            }
+
+            // Visit the superclass first!
+            for (AnnotatedDeclaredType st : directSuperTypes) {
+                if (st.getKind() == TypeKind.DECLARED) {
+                    AnnotatedDeclaredType x = (AnnotatedDeclaredType) asSuper(types, atypeFactory, st, p);
+                    if (x != null) {
+                        paths.putAsSuperStep(typeElement, superElement,
+                                (TypeElement) st.getUnderlyingType().asElement());
+                        return x;
+                    }
+                }
+            }
+            paths.putAsSuperStep(typeElement, superElement, typeElement);
+            return null;
+        }
+
         @Override
         public AnnotatedTypeMirror visitIntersection(AnnotatedIntersectionType type, AnnotatedTypeMirror p) {
             if (shouldStop(p, type))
@@ -570,6 +618,10 @@ public class AnnotatedTypes {
      * of all elements that this method overrides (as
      * {@link ExecutableElement}s)
      *
+     * The overridden elements are looked up in the {@link OverrideIndex}
+     * of the compilation; the annotated supertypes are only computed if
+     * {@code method} overrides something.
+     *
      * @param method
      *            the overriding method
      * @return an unmodifiable set of {@link ExecutableElement}s
@@ -579,10 +631,25 @@ public class AnnotatedTypes {
             Elements elements,
             AnnotatedTypeFactory atypeFactory,
             ExecutableElement method) {
+        final Map<TypeElement, ExecutableElement> overridden =
+                OverrideIndex.instance(atypeFactory.getProcessingEnv()).overriddenMethods(method);
+        if (overridden.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
         final TypeElement elem = (TypeElement) method.getEnclosingElement();
         final AnnotatedDeclaredType type = atypeFactory.getAnnotatedType(elem);
         final Collection<AnnotatedDeclaredType> supertypes = getSuperTypes(type);
-        return overriddenMethods(elements, method, supertypes);
+
+        Map<AnnotatedDeclaredType, ExecutableElement> overrides = new LinkedHashMap<>();
+        for (AnnotatedDeclaredType supertype : supertypes) {
+            ExecutableElement supermethod = overridden.get(supertype.getUnderlyingType().asElement());
+            if (supermethod != null) {
+                overrides.put(supertype, supermethod);
+            }
+        }
+        return Collections.</*@NonNull*/ AnnotatedDeclaredType,
+            /*@NonNull*/ ExecutableElement>unmodifiableMap(overrides);
     }
 
     /**
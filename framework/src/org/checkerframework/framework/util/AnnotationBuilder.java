@@ -27,6 +27,7 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
 import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.ErrorReporter;
 import org.checkerframework.javacutil.InternalUtils;
 import org.checkerframework.javacutil.TypesUtils;
@@ -97,10 +98,14 @@ public class AnnotationBuilder {
         }
     }
 
+    /**
+     * Returns the built annotation.  Equal annotations built by different
+     * builders are usually the same object, see {@link AnnotationUtils#intern}.
+     */
     public AnnotationMirror build() {
         assertNotBuilt();
         wasBuilt = true;
-        return new AnnotationMirror() {
+        return AnnotationUtils.intern(new AnnotationMirror() {
 
             private String toStringVal;
 
@@ -145,7 +150,7 @@ public class AnnotationBuilder {
 
                 // return "@" + annotationType + "(" + elementValues + ")";
             }
-        };
+        });
     }
 
     public AnnotationBuilder setValue(CharSequence elementName,
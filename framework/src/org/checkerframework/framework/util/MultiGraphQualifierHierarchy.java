@@ -19,6 +19,7 @@ import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -183,6 +184,21 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
      */
     protected final Map<AnnotationMirror, AnnotationMirror> polyQualifiers;
 
+    /**
+     * Maps the name of each qualifier in the hierarchy to the top of its
+     * hierarchy.  All qualifiers with the same annotation type, whatever
+     * their values, belong to the same hierarchy.
+     * Immutable after construction finishes.
+     */
+    private final Map</*@Interned*/ String, AnnotationMirror> topsByName;
+
+    /**
+     * Maps the name of each qualifier in the hierarchy to the bottom of its
+     * hierarchy.
+     * Immutable after construction finishes.
+     */
+    private final Map</*@Interned*/ String, AnnotationMirror> bottomsByName;
+
     public MultiGraphQualifierHierarchy(MultiGraphFactory f) {
         this(f, (Object[]) null);
     }
@@ -216,9 +232,69 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
         // TODO: make polyQualifiers immutable also?
 
         this.supertypesMap = Collections.unmodifiableMap(fullMap);
+
+        this.topsByName = new HashMap<>();
+        this.bottomsByName = new HashMap<>();
+        buildTopAndBottomIndex(fullMap, newtops, newbottoms);
         // System.out.println("MGH: " + this);
     }
 
+    /**
+     * Fills {@link #topsByName} and {@link #bottomsByName} from the transitive
+     * closure of the hierarchy.  The subtype relation is read from fullMap
+     * directly, because isSubtype may be overridden by a subclass that is
+     * not fully initialized yet.  Qualifier names whose qualifiers do not
+     * agree on a single top or bottom are left out of the index, so that
+     * lookups for them fall back to subtype tests.
+     */
+    private void buildTopAndBottomIndex(Map<AnnotationMirror, Set<AnnotationMirror>> fullMap,
+            Set<AnnotationMirror> tops, Set<AnnotationMirror> bottoms) {
+        Set</*@Interned*/ String> ambiguousTops = new HashSet<>();
+        Set</*@Interned*/ String> ambiguousBottoms = new HashSet<>();
+        for (Map.Entry<AnnotationMirror, Set<AnnotationMirror>> entry : fullMap.entrySet()) {
+            AnnotationMirror qual = entry.getKey();
+            /*@Interned*/ String name = AnnotationUtils.annotationName(qual);
+
+            // A qualifier below several tops, e.g. a polymorphic qualifier
+            // shared by all hierarchies, gets no entry.
+            AnnotationMirror top = null;
+            int topCount = 0;
+            for (AnnotationMirror t : tops) {
+                if (AnnotationUtils.areSame(qual, t) ||
+                        AnnotationUtils.containsSame(entry.getValue(), t)) {
+                    top = t;
+                    topCount++;
+                }
+            }
+            addToIndex(topsByName, ambiguousTops, name, topCount == 1 ? top : null);
+
+            AnnotationMirror bottom = null;
+            int bottomCount = 0;
+            for (AnnotationMirror b : bottoms) {
+                if (AnnotationUtils.areSame(qual, b) ||
+                        (fullMap.containsKey(b) && AnnotationUtils.containsSame(fullMap.get(b), qual))) {
+                    bottom = b;
+                    bottomCount++;
+                }
+            }
+            addToIndex(bottomsByName, ambiguousBottoms, name, bottomCount == 1 ? bottom : null);
+        }
+        topsByName.keySet().removeAll(ambiguousTops);
+        bottomsByName.keySet().removeAll(ambiguousBottoms);
+    }
+
+    private static void addToIndex(Map</*@Interned*/ String, AnnotationMirror> index,
+            Set</*@Interned*/ String> ambiguous, /*@Interned*/ String name, AnnotationMirror value) {
+        AnnotationMirror previous = index.get(name);
+        if (value == null) {
+            ambiguous.add(name);
+        } else if (previous == null) {
+            index.put(name, value);
+        } else if (previous != value) {
+            ambiguous.add(name);
+        }
+    }
+
     /**
      * Method to finalize the qualifier hierarchy before it becomes unmodifiable.
      * The parameters pass all fields and allow modification.
@@ -247,6 +323,10 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
 
     @Override
     public AnnotationMirror getTopAnnotation(AnnotationMirror start) {
+        AnnotationMirror indexed = topsByName.get(AnnotationUtils.annotationName(start));
+        if (indexed != null) {
+            return indexed;
+        }
         for (AnnotationMirror top : tops) {
             if (AnnotationUtils.areSame(start, top) ||
                     isSubtype(start, top)) {
@@ -265,6 +345,10 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
 
     @Override
     public AnnotationMirror getBottomAnnotation(AnnotationMirror start) {
+        AnnotationMirror indexed = bottomsByName.get(AnnotationUtils.annotationName(start));
+        if (indexed != null) {
+            return indexed;
+        }
         for (AnnotationMirror bot : bottoms) {
             if (AnnotationUtils.areSame(start, bot) ||
                     isSubtype(bot, start)) {
@@ -276,6 +360,41 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
         return null;
     }
 
+    @Override
+    public AnnotationMirror findCorrespondingAnnotation(
+            AnnotationMirror aliased, Collection<? extends AnnotationMirror> a) {
+        AnnotationMirror top = getTopAnnotation(aliased);
+        for (AnnotationMirror anno : a) {
+            AnnotationMirror annoTop = topsByName.get(AnnotationUtils.annotationName(anno));
+            if (annoTop != null ? annoTop == top : isSubtype(anno, top)) {
+                return anno;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public AnnotationMirror getAnnotationInHierarchy(
+            Collection<? extends AnnotationMirror> annos, AnnotationMirror top) {
+        // The index can only answer for one of the tops themselves; other
+        // annotations passed as top are handled by subtype tests.
+        boolean isTop = false;
+        for (AnnotationMirror t : tops) {
+            if (t == top) {
+                isTop = true;
+                break;
+            }
+        }
+        AnnotationMirror annoInHierarchy = null;
+        for (AnnotationMirror anno : annos) {
+            AnnotationMirror annoTop = isTop ? topsByName.get(AnnotationUtils.annotationName(anno)) : null;
+            if (annoTop != null ? annoTop == top : isSubtype(anno, top)) {
+                annoInHierarchy = anno;
+            }
+        }
+        return annoInHierarchy;
+    }
+
     @Override
     public AnnotationMirror getPolymorphicAnnotation(AnnotationMirror start) {
         AnnotationMirror top = getTopAnnotation(start);
@@ -336,6 +455,9 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
 
     @Override
     public AnnotationMirror leastUpperBound(AnnotationMirror a1, AnnotationMirror a2) {
+        if (a1 == a2) {
+            return a1;
+        }
         if (!AnnotationUtils.areSameIgnoringValues(getTopAnnotation(a1), getTopAnnotation(a2))) {
             return null;
         } else if (isSubtype(a1, a2)) {
@@ -366,6 +488,8 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
 
     @Override
     public AnnotationMirror greatestLowerBound(AnnotationMirror a1, AnnotationMirror a2) {
+        if (a1 == a2)
+            return a1;
         if (AnnotationUtils.areSameIgnoringValues(a1, a2))
             return AnnotationUtils.areSame(a1, a2) ? a1 : getBottomAnnotation(a1);
         if (glbs == null) {
@@ -413,6 +537,8 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
             if (isSubtype(anno1, top) && AnnotationUtils.areSame(top, anno2))
             return true;
         }*/
+        if (rhs == lhs)
+            return true;
         if (AnnotationUtils.areSameIgnoringValues(rhs, lhs))
             return AnnotationUtils.areSame(rhs, lhs);
         Set<AnnotationMirror> supermap1 = this.supertypesMap.get(rhs);
@@ -0,0 +1,373 @@
+package org.checkerframework.framework.util;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+import org.checkerframework.framework.source.SourceChecker;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.processing.ProcessingEnvironment;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of the phases of
+ * type-checking, per checker and per compilation unit, for the
+ * {@code -Aprofile} option.
+ *
+ * <p>
+ * A phase is measured between {@link #start} and {@link #stop}, which must
+ * be called on the same thread.  Phases nest: the dataflow analysis of a
+ * class, for instance, happens while the visitor checks it.  For every
+ * phase, both the total measurements and the measurements without nested
+ * phases ("self") are recorded, so that the self measurements of all phases
+ * add up to the total time spent in the checkers.
+ *
+ * <p>
+ * CPU time and allocated bytes are measured with the {@link ThreadMXBean}
+ * of the JVM; they are reported as -1 if the JVM does not support them.
+ *
+ * <p>
+ * There is one profiler per compilation, shared by all checkers and their
+ * subcheckers; use {@link #instance(ProcessingEnvironment)} to obtain it.
+ */
+public class Profiler {
+
+    /** Parsing stub files, when a type factory is created. */
+    public static final String STUBS = "stubs";
+    /** Building control flow graphs. */
+    public static final String CFG = "cfg";
+    /** The dataflow analysis of methods, initializers and lambdas. */
+    public static final String DATAFLOW = "dataflow";
+    /** Computing the annotated types of trees and elements, including defaults. */
+    public static final String ANNOTATE = "annotate";
+    /** The checks of the visitor of a checker. */
+    public static final String CHECK = "check";
+
+    /** The name used for work that does not belong to a compilation unit. */
+    public static final String NO_UNIT = "(none)";
+
+    /** The key of the profiler in the compiler context. */
+    protected static final Context.Key<Profiler> profilerKey =
+            new Context.Key<Profiler>();
+
+    /** The measurements, by checker, compilation unit and phase. */
+    private final Map<String, Map<String, Map<String, Measurement>>> measurements = new TreeMap<>();
+
+    /** The phases that are running, innermost first. */
+    private final Deque<Frame> running = new ArrayDeque<>();
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final /*@Nullable*/ com.sun.management.ThreadMXBean allocations;
+
+    protected Profiler() {
+        if (threads.isCurrentThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        com.sun.management.ThreadMXBean sunThreads = null;
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported()) {
+                sunThreads.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                sunThreads = null;
+            }
+        }
+        this.allocations = sunThreads;
+    }
+
+    /**
+     * Returns the profiler of the current compilation.
+     */
+    public static Profiler instance(ProcessingEnvironment env) {
+        Context context = ((JavacProcessingEnvironment) env).getContext();
+        Profiler profiler = context.get(profilerKey);
+        if (profiler == null) {
+            profiler = new Profiler();
+            context.put(profilerKey, profiler);
+        }
+        return profiler;
+    }
+
+    /**
+     * Returns the profiler of the current compilation if {@code checker}
+     * was run with the {@code profile} option, and {@code null} otherwise.
+     */
+    public static /*@Nullable*/ Profiler forChecker(SourceChecker checker) {
+        return checker.hasOption("profile")
+                ? instance(checker.getProcessingEnvironment())
+                : null;
+    }
+
+    /**
+     * Returns the name under which the work on compilation unit
+     * {@code root} is recorded.
+     */
+    public static String unitName(/*@Nullable*/ CompilationUnitTree root) {
+        if (root == null || root.getSourceFile() == null) {
+            return NO_UNIT;
+        }
+        return root.getSourceFile().getName();
+    }
+
+    /**
+     * Starts measuring phase {@code phase} of checker {@code checker} on
+     * compilation unit {@code root}.
+     */
+    public void start(SourceChecker checker, /*@Nullable*/ CompilationUnitTree root, String phase) {
+        Measurement measurement = measurement(checker.getClass().getSimpleName(), unitName(root), phase);
+        Frame frame = new Frame(measurement);
+        frame.wall = System.nanoTime();
+        frame.cpu = cpuTime();
+        frame.allocated = allocatedBytes();
+        running.push(frame);
+    }
+
+    /**
+     * Stops measuring the phase that was started last.
+     */
+    public void stop() {
+        long wall = System.nanoTime();
+        long cpu = cpuTime();
+        long allocated = allocatedBytes();
+
+        Frame frame = running.pop();
+        long dWall = wall - frame.wall;
+        long dCpu = cpu - frame.cpu;
+        long dAllocated = allocated - frame.allocated;
+
+        Measurement m = frame.measurement;
+        m.count++;
+        m.wall += dWall;
+        m.cpu += dCpu;
+        m.allocated += dAllocated;
+        m.selfWall += dWall - frame.nestedWall;
+        m.selfCpu += dCpu - frame.nestedCpu;
+        m.selfAllocated += dAllocated - frame.nestedAllocated;
+
+        Frame outer = running.peek();
+        if (outer != null) {
+            outer.nestedWall += dWall;
+            outer.nestedCpu += dCpu;
+            outer.nestedAllocated += dAllocated;
+        }
+    }
+
+    private long cpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes() {
+        return allocations == null ? 0 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private Measurement measurement(String checker, String unit, String phase) {
+        Map<String, Map<String, Measurement>> units = measurements.get(checker);
+        if (units == null) {
+            units = new TreeMap<>();
+            measurements.put(checker, units);
+        }
+        Map<String, Measurement> phases = units.get(unit);
+        if (phases == null) {
+            phases = new LinkedHashMap<>();
+            units.put(unit, phases);
+        }
+        Measurement m = phases.get(phase);
+        if (m == null) {
+            m = new Measurement();
+            phases.put(phase, m);
+        }
+        return m;
+    }
+
+    /**
+     * Writes the measurements to {@code fileName}: in JSON format if the
+     * name ends with {@code .json}, and as comma-separated values otherwise.
+     */
+    public void write(String fileName) throws IOException {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(fileName)))) {
+            if (fileName.endsWith(".json")) {
+                writeJSON(out);
+            } else {
+                writeCSV(out);
+            }
+        }
+    }
+
+    /**
+     * Writes one line per checker, compilation unit and phase, followed by
+     * the totals of every checker and phase (with compilation unit "*").
+     */
+    private void writeCSV(PrintWriter out) {
+        out.println("checker,unit,phase,count,wall_ns,cpu_ns,allocated_bytes,self_wall_ns,self_cpu_ns,self_allocated_bytes");
+        for (Map.Entry<String, Map<String, Map<String, Measurement>>> checker : measurements.entrySet()) {
+            for (Map.Entry<String, Map<String, Measurement>> unit : checker.getValue().entrySet()) {
+                for (Map.Entry<String, Measurement> phase : unit.getValue().entrySet()) {
+                    writeCSVLine(out, checker.getKey(), unit.getKey(), phase.getKey(), phase.getValue());
+                }
+            }
+            for (Map.Entry<String, Measurement> phase : totals(checker.getValue()).entrySet()) {
+                writeCSVLine(out, checker.getKey(), "*", phase.getKey(), phase.getValue());
+            }
+        }
+    }
+
+    private void writeCSVLine(PrintWriter out, String checker, String unit, String phase, Measurement m) {
+        out.println(csv(checker) + "," + csv(unit) + "," + csv(phase) + "," + m.count
+                + "," + m.wall + "," + cpu(m.cpu) + "," + allocated(m.allocated)
+                + "," + m.selfWall + "," + cpu(m.selfCpu) + "," + allocated(m.selfAllocated));
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Writes an object with one entry per checker, which holds the totals
+     * per phase and the measurements per compilation unit and phase.
+     */
+    private void writeJSON(PrintWriter out) {
+        out.println("{");
+        boolean firstChecker = true;
+        for (Map.Entry<String, Map<String, Map<String, Measurement>>> checker : measurements.entrySet()) {
+            if (!firstChecker) {
+                out.println(",");
+            }
+            firstChecker = false;
+            out.println("  " + json(checker.getKey()) + ": {");
+            out.print("    \"totals\": ");
+            writeJSONPhases(out, totals(checker.getValue()), "    ");
+            out.println(",");
+            out.println("    \"units\": {");
+            boolean firstUnit = true;
+            for (Map.Entry<String, Map<String, Measurement>> unit : checker.getValue().entrySet()) {
+                if (!firstUnit) {
+                    out.println(",");
+                }
+                firstUnit = false;
+                out.print("      " + json(unit.getKey()) + ": ");
+                writeJSONPhases(out, unit.getValue(), "      ");
+            }
+            out.println();
+            out.println("    }");
+            out.print("  }");
+        }
+        out.println();
+        out.println("}");
+    }
+
+    private void writeJSONPhases(PrintWriter out, Map<String, Measurement> phases, String indent) {
+        out.println("{");
+        boolean first = true;
+        for (Map.Entry<String, Measurement> phase : phases.entrySet()) {
+            if (!first) {
+                out.println(",");
+            }
+            first = false;
+            Measurement m = phase.getValue();
+            out.print(indent + "  " + json(phase.getKey()) + ": {"
+                    + "\"count\": " + m.count
+                    + ", \"wall_ns\": " + m.wall
+                    + ", \"cpu_ns\": " + cpu(m.cpu)
+                    + ", \"allocated_bytes\": " + allocated(m.allocated)
+                    + ", \"self_wall_ns\": " + m.selfWall
+                    + ", \"self_cpu_ns\": " + cpu(m.selfCpu)
+                    + ", \"self_allocated_bytes\": " + allocated(m.selfAllocated)
+                    + "}");
+        }
+        out.println();
+        out.print(indent + "}");
+    }
+
+    private static String json(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private long cpu(long value) {
+        return threads.isCurrentThreadCpuTimeSupported() ? value : -1;
+    }
+
+    private long allocated(long value) {
+        return allocations == null ? -1 : value;
+    }
+
+    /** Returns the sums of the measurements of all compilation units, per phase. */
+    private static Map<String, Measurement> totals(Map<String, Map<String, Measurement>> units) {
+        Map<String, Measurement> result = new LinkedHashMap<>();
+        for (Map<String, Measurement> phases : units.values()) {
+            for (Map.Entry<String, Measurement> phase : phases.entrySet()) {
+                Measurement total = result.get(phase.getKey());
+                if (total == null) {
+                    total = new Measurement();
+                    result.put(phase.getKey(), total);
+                }
+                total.add(phase.getValue());
+            }
+        }
+        return result;
+    }
+
+    /** The accumulated measurements of one phase. */
+    private static class Measurement {
+        long count;
+        long wall;
+        long cpu;
+        long allocated;
+        long selfWall;
+        long selfCpu;
+        long selfAllocated;
+
+        void add(Measurement other) {
+            count += other.count;
+            wall += other.wall;
+            cpu += other.cpu;
+            allocated += other.allocated;
+            selfWall += other.selfWall;
+            selfCpu += other.selfCpu;
+            selfAllocated += other.selfAllocated;
+        }
+    }
+
+    /** A phase that is running. */
+    private static class Frame {
+        final Measurement measurement;
+        long wall;
+        long cpu;
+        long allocated;
+        long nestedWall;
+        long nestedCpu;
+        long nestedAllocated;
+
+        Frame(Measurement measurement) {
+            this.measurement = measurement;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.checkerframework.framework.util;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+import org.checkerframework.javacutil.Pair;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Types;
+
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+
+/**
+ * The element-level results of walking the supertype graph: how
+ * {@link AnnotatedTypes#asSuper} reaches a supertype of a declaration, and
+ * the result of {@link TypeArgumentMapper#mapTypeArgumentIndices}.
+ *
+ * <p>
+ * Both only depend on the two declarations, which do not change during a
+ * compilation.  There is one instance per compilation, stored in the
+ * compiler context and shared by all checkers and their subcheckers, so
+ * that the elements it refers to are released together with the
+ * compilation; use {@link #instance(ProcessingEnvironment)} to obtain it.
+ */
+public class SupertypePaths {
+
+    /** The key of the paths in the compiler context. */
+    protected static final Context.Key<SupertypePaths> supertypePathsKey =
+            new Context.Key<SupertypePaths>();
+
+    protected final Types types;
+
+    /**
+     * The first step of the path from a declaration to one of its supertypes,
+     * by subtype and then by supertype: the direct supertype through which
+     * the supertype is reached, or the subtype itself if the supertype is
+     * not reachable.
+     */
+    private final Map<TypeElement, Map<TypeElement, TypeElement>> asSuperSteps = new HashMap<>();
+
+    /** The results of mapTypeArgumentIndices, by subtype and then by supertype. */
+    private final Map<TypeElement, Map<TypeElement, Set<Pair<Integer, Integer>>>> typeArgumentIndices =
+            new HashMap<>();
+
+    protected SupertypePaths(ProcessingEnvironment env) {
+        this.types = env.getTypeUtils();
+    }
+
+    /**
+     * Returns the supertype paths of the current compilation.
+     */
+    public static SupertypePaths instance(ProcessingEnvironment env) {
+        Context context = ((JavacProcessingEnvironment) env).getContext();
+        SupertypePaths paths = context.get(supertypePathsKey);
+        if (paths == null) {
+            paths = new SupertypePaths(env);
+            context.put(supertypePathsKey, paths);
+        }
+        return paths;
+    }
+
+    /**
+     * Returns the step recorded by {@link #putAsSuperStep}, or {@code null}
+     * if none was recorded for the two declarations.
+     */
+    public /*@Nullable*/ TypeElement getAsSuperStep(TypeElement subtype, TypeElement supertype) {
+        Map<TypeElement, TypeElement> steps = asSuperSteps.get(subtype);
+        return steps == null ? null : steps.get(supertype);
+    }
+
+    /**
+     * Records that {@code supertype} is reached from {@code subtype} through
+     * its direct supertype {@code step}; {@code step} is {@code subtype} if
+     * {@code supertype} is not reachable.
+     */
+    public void putAsSuperStep(TypeElement subtype, TypeElement supertype, TypeElement step) {
+        Map<TypeElement, TypeElement> steps = asSuperSteps.get(subtype);
+        if (steps == null) {
+            steps = new HashMap<>();
+            asSuperSteps.put(subtype, steps);
+        }
+        steps.put(supertype, step);
+    }
+
+    /**
+     * Returns {@link TypeArgumentMapper#mapTypeArgumentIndices}, which is
+     * computed once per pair of declarations.  The result must not be modified.
+     */
+    public Set<Pair<Integer, Integer>> mapTypeArgumentIndices(TypeElement subtype, TypeElement supertype) {
+        Map<TypeElement, Set<Pair<Integer, Integer>>> bySupertype = typeArgumentIndices.get(subtype);
+        if (bySupertype == null) {
+            bySupertype = new HashMap<>();
+            typeArgumentIndices.put(subtype, bySupertype);
+        }
+
+        Set<Pair<Integer, Integer>> result = bySupertype.get(supertype);
+        if (result == null) {
+            result = Collections.unmodifiableSet(
+                    TypeArgumentMapper.mapTypeArgumentIndices(subtype, supertype, types));
+            bySupertype.put(supertype, result);
+        }
+        return result;
+    }
+}
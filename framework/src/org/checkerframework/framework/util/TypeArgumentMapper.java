@@ -58,6 +58,8 @@ public class TypeArgumentMapper {
      * Returns a mapping from subtype's type parameter indices to the indices of corresponding
      * type parameters in supertype.
      *
+     * Use {@link SupertypePaths#mapTypeArgumentIndices} to compute the mapping only once
+     * per pair of elements.
      */
     public static Set<Pair<Integer, Integer>> mapTypeArgumentIndices(final TypeElement subtype,
                                                                      final TypeElement supertype,
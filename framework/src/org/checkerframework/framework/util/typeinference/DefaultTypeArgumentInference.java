@@ -25,6 +25,7 @@ import org.checkerframework.framework.util.typeinference.solver.InferredValue;
 import org.checkerframework.framework.util.typeinference.solver.InferredValue.InferredType;
 import org.checkerframework.framework.util.typeinference.solver.SubtypesSolver;
 import org.checkerframework.framework.util.typeinference.solver.SupertypesSolver;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.ErrorReporter;
 import org.checkerframework.javacutil.Pair;
 
@@ -32,6 +33,7 @@ import static org.checkerframework.framework.util.typeinference.TypeArgInference
 import static org.checkerframework.framework.util.typeinference.TypeArgInferenceUtil.treesToTypes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -82,6 +84,16 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
     private final SubtypesSolver subtypesSolver = new SubtypesSolver();
     private final ConstraintMapBuilder constraintMapBuilder = new ConstraintMapBuilder();
 
+    /** Size of the LRU cache of inference results. */
+    private final static int INFERENCE_CACHE_SIZE = 500;
+
+    /**
+     * Mapping from the inputs of an inference (see {@link #inferenceKey}) to the type arguments inferred from them.
+     * Call sites of the same generic method often have the same argument types and assignment context.
+     */
+    private final Map<List<Object>, Map<TypeVariable, AnnotatedTypeMirror>> inferenceCache =
+            CollectionUtils.createLRUCache(INFERENCE_CACHE_SIZE);
+
     @Override
     public Map<TypeVariable, AnnotatedTypeMirror> inferTypeArgs(AnnotatedTypeFactory typeFactory,
                                                                 ExpressionTree expressionTree,
@@ -98,16 +110,85 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
         final List<AnnotatedTypeMirror> argTypes = getArgumentTypes(expressionTree, typeFactory);
         final AnnotatedTypeMirror assignedTo = getAssignedTo(expressionTree, typeFactory);
 
+        final List<Object> key = inferenceKey(typeFactory, argTypes, assignedTo, methodElem, methodType);
+        if (typeFactory.shouldReadCache) {
+            final Map<TypeVariable, AnnotatedTypeMirror> cached = inferenceCache.get(key);
+            if (cached != null) {
+                return copyInferredArgs(cached);
+            }
+        }
+
         //steps 1-4
         final Set<TypeVariable> targets = TypeArgInferenceUtil.methodTypeToTargets(methodType);
-        final Map<TypeVariable, AnnotatedTypeMirror> inferredArgs =
-                infer(typeFactory,  argTypes, assignedTo, methodElem, methodType, targets);
+        final Map<TypeVariable, AnnotatedTypeMirror> inferredArgs;
+        if (mentionsTargets(methodType, assignedTo, targets)) {
+            inferredArgs = infer(typeFactory,  argTypes, assignedTo, methodElem, methodType, targets);
+        } else {
+            //neither the arguments nor the assignment context constrain the targets
+            inferredArgs = new HashMap<>();
+        }
 
         //step 5
         handleUninferredTypeVariables(typeFactory, methodType, targets, inferredArgs);
+
+        if (typeFactory.shouldCache) {
+            // The key is copied so that later changes to the argument types do not change it.
+            final List<AnnotatedTypeMirror> argTypesCopy = new ArrayList<>(argTypes.size());
+            for (final AnnotatedTypeMirror argType : argTypes) {
+                argTypesCopy.add(argType.deepCopy());
+            }
+            inferenceCache.put(
+                    inferenceKey(typeFactory, argTypesCopy, assignedTo == null ? null : assignedTo.deepCopy(),
+                                 methodElem, methodType.deepCopy()),
+                    copyInferredArgs(inferredArgs));
+        }
         return inferredArgs;
     }
 
+    /**
+     * The inputs that determine the result of an inference.  Types are compared structurally, so two invocations of
+     * the same method with the same annotated argument types and assignment context share one entry.
+     */
+    private static List<Object> inferenceKey(final AnnotatedTypeFactory typeFactory,
+                                             final List<AnnotatedTypeMirror> argTypes,
+                                             final AnnotatedTypeMirror assignedTo,
+                                             final ExecutableElement methodElem,
+                                             final AnnotatedExecutableType methodType) {
+        return Arrays.<Object>asList(typeFactory, methodElem, methodType, argTypes, assignedTo);
+    }
+
+    /**
+     * Returns a copy of inferredArgs, whose types are modified by callers (e.g. when resolving polymorphic
+     * qualifiers) and therefore cannot be shared with the cache.
+     */
+    private static Map<TypeVariable, AnnotatedTypeMirror> copyInferredArgs(
+            final Map<TypeVariable, AnnotatedTypeMirror> inferredArgs) {
+        final Map<TypeVariable, AnnotatedTypeMirror> copy = new HashMap<>(inferredArgs.size());
+        for (final Map.Entry<TypeVariable, AnnotatedTypeMirror> entry : inferredArgs.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().deepCopy());
+        }
+        return copy;
+    }
+
+    /**
+     * @return true if a target is used in the formal parameter types of methodType or, if there is an assignment
+     *         context, in its return type.  Otherwise there are no constraints to solve and no type argument can be
+     *         inferred.
+     */
+    private static boolean mentionsTargets(final AnnotatedExecutableType methodType,
+                                           final AnnotatedTypeMirror assignedTo,
+                                           final Set<TypeVariable> targets) {
+        for (final AnnotatedTypeMirror paramType : methodType.getParameterTypes()) {
+            if (TypeArgInferenceUtil.containsTypeVariable(paramType, targets)) {
+                return true;
+            }
+        }
+
+        final AnnotatedTypeMirror returnType = methodType.getReturnType();
+        return assignedTo != null && returnType != null
+            && TypeArgInferenceUtil.containsTypeVariable(returnType, targets);
+    }
+
     @Override
     public void adaptMethodType(AnnotatedTypeFactory typeFactory, ExpressionTree invocation, AnnotatedExecutableType methodType) {
         //do nothing
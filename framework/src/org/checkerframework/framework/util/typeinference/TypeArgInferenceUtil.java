@@ -227,15 +227,15 @@ public class TypeArgInferenceUtil {
      */
     private static boolean containsUninferredTypeParameter(AnnotatedTypeMirror type,
                                                            AnnotatedExecutableType methodType) {
-        final List<AnnotatedTypeVariable> annotatedTypeVars = methodType.getTypeVariables();
-        final List<TypeVariable> typeVars = new ArrayList<>(annotatedTypeVars.size());
-
-        for (AnnotatedTypeVariable annotatedTypeVar : annotatedTypeVars) {
-            typeVars.add(annotatedTypeVar.getUnderlyingType());
-        }
+        return containsTypeVariable(type, methodTypeToTargets(methodType));
+    }
 
+    /**
+     * @return true if type contains a use of one of the type variables in typeVars
+     */
+    public static boolean containsTypeVariable(final AnnotatedTypeMirror type, final Set<TypeVariable> typeVars) {
         //note NULL values creep in because the underlying visitor uses them in various places
-        final Boolean result = type.accept(new TypeVariableFinder(), typeVars);
+        final Boolean result = type.accept(new TypeVariableFinder(), new ArrayList<>(typeVars));
         return result != null && result;
     }
 
@@ -11,12 +11,14 @@ import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedExecutab
 import org.checkerframework.framework.util.MultiGraphQualifierHierarchy;
 import org.checkerframework.framework.util.MultiGraphQualifierHierarchy.MultiGraphFactory;
 import org.checkerframework.framework.util.defaults.QualifierDefaults;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.Pair;
 import org.checkerframework.qualframework.base.QualifiedTypeMirror.QualifiedExecutableType;
 import org.checkerframework.qualframework.base.dataflow.QualAnalysis;
 import org.checkerframework.qualframework.base.dataflow.QualTransferAdapter;
 
 import java.util.List;
+import java.util.Map;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
@@ -37,10 +39,19 @@ class QualifiedTypeFactoryAdapter<Q> extends BaseAnnotatedTypeFactory {
     /** The qualAnalysis instance to use for dataflow. */
     private QualAnalysis<Q> qualAnalysis;
 
+    /** Size of the LRU cache of element types. */
+    private final static int ELEMENT_CACHE_SIZE = 300;
+
+    /** Mapping from an element to its qualified type.  {@link
+     * QualifiedTypeMirror}s are immutable, so cached types can be returned
+     * without copying. */
+    private final Map<Element, QualifiedTypeMirror<Q>> qualifiedElementCache;
+
     public QualifiedTypeFactoryAdapter(QualifiedTypeFactory<Q> underlying,
             CheckerAdapter<Q> checker) {
         super(checker, true);
         this.underlying = underlying;
+        this.qualifiedElementCache = CollectionUtils.createLRUCache(ELEMENT_CACHE_SIZE);
 
         // We can't call postInit yet.  See CheckerAdapter.getTypeFactory for
         // explanation.
@@ -205,8 +216,18 @@ class QualifiedTypeFactoryAdapter<Q> extends BaseAnnotatedTypeFactory {
     }
 
     QualifiedTypeMirror<Q> superGetAnnotatedType(Element elt) {
+        if (shouldReadCache) {
+            QualifiedTypeMirror<Q> cached = qualifiedElementCache.get(elt);
+            if (cached != null) {
+                return cached;
+            }
+        }
         AnnotatedTypeMirror atm = super.getAnnotatedType(elt);
-        return getCheckerAdapter().getTypeMirrorConverter().getQualifiedType(atm);
+        QualifiedTypeMirror<Q> result = getCheckerAdapter().getTypeMirrorConverter().getQualifiedType(atm);
+        if (shouldCache) {
+            qualifiedElementCache.put(elt, result);
+        }
+        return result;
     }
 
     @Override
@@ -2,6 +2,7 @@ package org.checkerframework.qualframework.base;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -54,6 +55,16 @@ class QualifierHierarchyAdapter<Q> {
     }
 
     public class Implementation extends MultiGraphQualifierHierarchy {
+        /* Results of qualifier comparisons between two @Key annotations,
+         * indexed by the pair of their indices (see keyPair).  The qualifier
+         * for an index never changes, so these never need to be invalidated.
+         * Primary annotations are compared far more often than there are
+         * distinct qualifiers, so this avoids looking up both qualifiers and
+         * running the underlying hierarchy on every comparison. */
+        private final Map<Long, Boolean> subtypeByKeys = new HashMap<>();
+        private final Map<Long, AnnotationMirror> lubByKeys = new HashMap<>();
+        private final Map<Long, AnnotationMirror> glbByKeys = new HashMap<>();
+
         public Implementation(MultiGraphFactory f) {
             super(f);
         }
@@ -112,7 +123,28 @@ class QualifierHierarchyAdapter<Q> {
                 return false;
             }
 
-            return underlying.isSubtype(rhsQual, lhsQual);
+            Long pair = keyPair(rhs, lhs);
+            if (pair == null) {
+                return underlying.isSubtype(rhsQual, lhsQual);
+            }
+            Boolean cached = subtypeByKeys.get(pair);
+            if (cached != null) {
+                return cached;
+            }
+            boolean result = underlying.isSubtype(rhsQual, lhsQual);
+            subtypeByKeys.put(pair, result);
+            return result;
+        }
+
+        /**
+         * Returns a single number identifying the pair of @Key annotations a1
+         * and a2, or null if one of them is not a @Key annotation.
+         */
+        private Long keyPair(AnnotationMirror a1, AnnotationMirror a2) {
+            if (!converter.isKey(a1) || !converter.isKey(a2)) {
+                return null;
+            }
+            return ((long) converter.getIndex(a1) << 32) | (converter.getIndex(a2) & 0xFFFFFFFFL);
         }
 
         /**
@@ -135,16 +167,38 @@ class QualifierHierarchyAdapter<Q> {
 
         @Override
         public AnnotationMirror leastUpperBound(AnnotationMirror a1, AnnotationMirror a2) {
+            Long pair = keyPair(a1, a2);
+            if (pair != null) {
+                AnnotationMirror cached = lubByKeys.get(pair);
+                if (cached != null) {
+                    return cached;
+                }
+            }
             Q q1 = getOrCreateQualifier(a1);
             Q q2 = getOrCreateQualifier(a2);
-            return converter.getAnnotation(underlying.leastUpperBound(q1, q2));
+            AnnotationMirror result = converter.getAnnotation(underlying.leastUpperBound(q1, q2));
+            if (pair != null) {
+                lubByKeys.put(pair, result);
+            }
+            return result;
         }
 
         @Override
         public AnnotationMirror greatestLowerBound(AnnotationMirror a1, AnnotationMirror a2) {
+            Long pair = keyPair(a1, a2);
+            if (pair != null) {
+                AnnotationMirror cached = glbByKeys.get(pair);
+                if (cached != null) {
+                    return cached;
+                }
+            }
             Q q1 = getOrCreateQualifier(a1);
             Q q2 = getOrCreateQualifier(a2);
-            return converter.getAnnotation(underlying.greatestLowerBound(q1, q2));
+            AnnotationMirror result = converter.getAnnotation(underlying.greatestLowerBound(q1, q2));
+            if (pair != null) {
+                glbByKeys.put(pair, result);
+            }
+            return result;
         }
 
         @Override
@@ -90,6 +90,16 @@ public class TypeMirrorConverter<Q> {
          }
     };
 
+    /** The maximum number of entries in {@link #qualifiedToAnnotated}. */
+    private static final int CONVERSION_CACHE_SIZE = 1000;
+
+    /** Cache of QTM -> ATM conversions, keyed by the identity of the
+     * (immutable) {@link QualifiedTypeMirror}.  The cached results are private
+     * copies; {@link #getAnnotatedType} returns a fresh copy of them, since
+     * {@link AnnotatedTypeMirror}s are mutable. */
+    private final Map<QualifiedTypeMirror<Q>, AnnotatedTypeMirror> qualifiedToAnnotated =
+        new IdentityHashMap<>();
+
     @TypeQualifier
     @SubtypeOf({})
     public static @interface Key {
@@ -155,7 +165,7 @@ public class TypeMirrorConverter<Q> {
 
     /** Returns the <code>index</code> field of a {@link Key} {@link
      * AnnotationMirror}. */
-    private int getIndex(AnnotationMirror anno) {
+    int getIndex(AnnotationMirror anno) {
         return getAnnotationField(anno, indexElement);
     }
 
@@ -218,6 +228,22 @@ public class TypeMirrorConverter<Q> {
         if (qtm == null) {
             return null;
         }
+        AnnotatedTypeMirror cached = qualifiedToAnnotated.get(qtm);
+        if (cached != null) {
+            return cached.deepCopy();
+        }
+        AnnotatedTypeMirror atm = convertToAnnotatedType(qtm);
+        // Clearing is cheaper than tracking the least recently used entry of
+        // an identity map, and conversions are mostly repeated shortly after
+        // the first one.
+        if (qualifiedToAnnotated.size() >= CONVERSION_CACHE_SIZE) {
+            qualifiedToAnnotated.clear();
+        }
+        qualifiedToAnnotated.put(qtm, atm.deepCopy());
+        return atm;
+    }
+
+    private AnnotatedTypeMirror convertToAnnotatedType(QualifiedTypeMirror<Q> qtm) {
         AnnotatedTypeMirror atm;
         if (qtm.getUnderlyingType() instanceof WrappedAnnotatedTypeMirror) {
             atm = ((WrappedAnnotatedTypeMirror)qtm.getUnderlyingType()).unwrap().deepCopy();
@@ -0,0 +1,56 @@
+import tests.util.*;
+
+// The stores that flow along exceptional edges, with several exception
+// types leading to the same handler, to a finally block, or out of the
+// method.
+class Exceptions {
+
+    static void mayThrow() throws java.io.IOException {
+    }
+
+    void sameHandler(@Odd String odd) {
+        String s = odd;
+        try {
+            mayThrow();
+            s = "";
+            mayThrow();
+        } catch (Exception e) {
+            //:: error: (assignment.type.incompatible)
+            @Odd String t = s;
+        }
+    }
+
+    void refinedInHandler(@Odd String odd) {
+        String s = odd;
+        try {
+            mayThrow();
+        } catch (java.io.IOException e) {
+            @Odd String t = s;
+        } catch (RuntimeException e) {
+            @Odd String t = s;
+        }
+    }
+
+    void finallyBlock(@Odd String odd, boolean cond) throws Exception {
+        String s = odd;
+        try {
+            if (cond) {
+                s = "";
+            }
+            mayThrow();
+        } finally {
+            //:: error: (assignment.type.incompatible)
+            @Odd String t = s;
+        }
+    }
+
+    void finallyRefined(@Odd String odd) throws Exception {
+        String s = "";
+        try {
+            s = odd;
+            mayThrow();
+        } finally {
+            @Odd String t = s;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import tests.util.*;
+
+// The type of a generic method invocation is cached together with the
+// argument types it was inferred from.  The argument types change between
+// the iterations of the flow analysis, so the types cached in earlier
+// iterations must not be used.
+class InvocationCache {
+
+    static <T> T id(T t) {
+        return t;
+    }
+
+    void outsideLoop(@Odd String odd) {
+        @Odd String t = id(odd);
+    }
+
+    void insideLoop(@Odd String odd, boolean cond) {
+        String s = odd;
+        while (cond) {
+            // s is @Odd in the first iteration only.
+            //:: error: (assignment.type.incompatible)
+            @Odd String t = id(s);
+            s = "";
+        }
+    }
+
+    void insideLoopReassigned(@Odd String odd, boolean cond) {
+        String s = "";
+        while (cond) {
+            s = odd;
+            @Odd String t = id(s);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import tests.util.*;
+import java.util.*;
+
+// Inferred type arguments are cached by method, argument types and
+// assignment context.  Calls that differ in one of them must not share a
+// result, and calls that agree in all of them must get the same result.
+public class InferenceCache {
+
+    static <T> T id(T t) { return t; }
+
+    static <T> T make() { return null; }
+
+    // T is used neither in the parameter types nor in the return type, so
+    // the constraints are not solved.
+    static <T> String describe(Object o) { return ""; }
+
+    void argumentTypes(@Odd String odd, @Even String even, String plain) {
+        @Odd String o1 = id(odd);
+        @Even String e1 = id(even);
+        String p1 = id(plain);
+        @Odd String o2 = id(odd);
+        @Even String e2 = id(even);
+    }
+
+    void assignmentContexts() {
+        @Odd String o1 = make();
+        @Even String e1 = make();
+        String p1 = make();
+        @Odd String o2 = make();
+
+        List<@Odd String> l1 = Collections.emptyList();
+        List<@Even String> l2 = Collections.emptyList();
+        List<String> l3 = Collections.emptyList();
+    }
+
+    void unconstrained(@Odd String odd, @Even String even) {
+        String s1 = describe(odd);
+        String s2 = describe(even);
+        describe(odd);
+        //:: error: (assignment.type.incompatible)
+        @Odd String s3 = describe(odd);
+    }
+}
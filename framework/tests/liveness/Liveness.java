@@ -0,0 +1,88 @@
+class Liveness {
+
+    static void sideEffect() {
+        throw new RuntimeException();
+    }
+
+    int overwritten(int a) {
+        int x = a;
+        //:: warning: (dead.assignment)
+        x = 1;
+        x = 2;
+        return x;
+    }
+
+    int branches(boolean b, int a) {
+        int x = 0;
+        if (b) {
+            x = a;
+        } else {
+            //:: warning: (dead.assignment)
+            x = 1;
+            return a;
+        }
+        return x;
+    }
+
+    int loop(int n) {
+        int sum = 0;
+        int i = 0;
+        while (i < n) {
+            sum = sum + i;
+            i = i + 1;
+        }
+        return sum;
+    }
+
+    int deadInLoop(int n) {
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            //:: warning: (dead.assignment)
+            last = i;
+        }
+        return n;
+    }
+
+    int exceptional(int a) {
+        int x = 0;
+        try {
+            // Live, because sideEffect() may throw.
+            x = a;
+            sideEffect();
+            x = 2;
+        } catch (RuntimeException e) {
+            return x;
+        }
+        return x;
+    }
+
+    int exceptionalDead(int a) {
+        int x = 0;
+        try {
+            sideEffect();
+            //:: warning: (dead.assignment)
+            x = a;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+        return a;
+    }
+
+    //:: warning: (parameter.not.live)
+    int unusedParameter(int a, int b) {
+        return b;
+    }
+
+    //:: warning: (parameter.not.live)
+    int overwrittenParameter(int a) {
+        a = 1;
+        return a;
+    }
+
+    int usedInOneBranch(boolean b, int a) {
+        if (b) {
+            return a;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,28 @@
+import tests.util.*;
+
+// Input of ProfileTest and SlowMethodsTest.  The flow analysis of every
+// method takes a few fix-point iterations.
+class Profiled {
+
+    @Odd String odd;
+
+    Profiled(@Odd String odd) {
+        this.odd = odd;
+    }
+
+    String loop(@Odd String s, int n) {
+        String result = "";
+        for (int i = 0; i < n; i++) {
+            result = s;
+        }
+        return result;
+    }
+
+    void branches(boolean b) {
+        String s = odd;
+        if (b) {
+            s = "";
+        }
+        @Odd String t = odd;
+    }
+}
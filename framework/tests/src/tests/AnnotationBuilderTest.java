@@ -1,6 +1,8 @@
 package tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import javax.annotation.processing.ProcessingEnvironment;
@@ -97,6 +99,28 @@ public class AnnotationBuilderTest {
         assertEquals(1, builder.build().getElementValues().size());
     }
 
+    @Test
+    public void equalAnnotationsAreInterned() {
+        AnnotationBuilder builder1 = new AnnotationBuilder(env, B.class);
+        builder1.setValue("strings", new String[] { "m", "n"});
+        AnnotationBuilder builder2 = new AnnotationBuilder(env, B.class);
+        builder2.setValue("strings", new String[] { "m", "n"});
+        assertSame(builder1.build(), builder2.build());
+    }
+
+    @Test
+    public void annotationsWithTheSameStringAreNotInterned() {
+        // Both annotations are printed as @B(strings={"m", "n"}).
+        AnnotationBuilder builder1 = new AnnotationBuilder(env, B.class);
+        builder1.setValue("strings", new String[] { "m", "n"});
+        AnnotationBuilder builder2 = new AnnotationBuilder(env, B.class);
+        builder2.setValue("strings", new String[] { "m\", \"n"});
+        AnnotationMirror anno1 = builder1.build();
+        AnnotationMirror anno2 = builder2.build();
+        assertEquals(anno1.toString(), anno2.toString());
+        assertNotSame(anno1, anno2);
+    }
+
     @Test(expected = SourceChecker.CheckerError.class)
     public void listArrayObjectWrongType() {
         AnnotationBuilder builder = new AnnotationBuilder(env, B.class);
@@ -0,0 +1,26 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Runs the flow tests with the exceptional edges of the dataflow analysis
+ * coalesced.
+ */
+public class FlowCoalesceExceptionalEdgesTest extends ParameterizedCheckerTest {
+
+    public FlowCoalesceExceptionalEdgesTest(File testFile) {
+        super(testFile,
+                tests.util.FlowTestChecker.class,
+                "flow",
+                "-Anomsgtext", "-AcoalesceExceptionalEdges");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("flow", "all-systems");
+    }
+}
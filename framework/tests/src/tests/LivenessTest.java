@@ -0,0 +1,22 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests the backward dataflow analysis with a liveness analysis.
+ */
+public class LivenessTest extends ParameterizedCheckerTest {
+
+    public LivenessTest(File testFile) {
+        super(testFile, tests.liveness.LiveVarChecker.class, "liveness", "-Anomsgtext");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("liveness");
+    }
+}
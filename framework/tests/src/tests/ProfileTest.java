@@ -0,0 +1,137 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.JavaFileObject;
+
+import org.checkerframework.framework.test.CheckerTest;
+import org.checkerframework.framework.test.TestInput;
+import org.checkerframework.framework.test.TestRun;
+import org.junit.Test;
+
+/**
+ * Runs the {@link tests.util.TestChecker} with the {@code -Aprofile} option
+ * and checks the CSV and JSON profiles that it writes.
+ */
+public class ProfileTest extends CheckerTest {
+
+    private static final String HEADER = "checker,unit,phase,count,wall_ns,cpu_ns,allocated_bytes,"
+            + "self_wall_ns,self_cpu_ns,self_allocated_bytes";
+
+    public ProfileTest() {
+        super(tests.util.TestChecker.class, "profile", "-Anomsgtext");
+    }
+
+    /** Compiles Profiled.java with the profile written to {@code profile}. */
+    private String runWithProfile(File profile) throws IOException {
+        Iterable<? extends JavaFileObject> files = TestInput.getFileManager()
+                .getJavaFileObjects(new File(checkerDir, "Profiled.java"));
+        List<String> options = new ArrayList<String>(checkerOptions);
+        options.add("-Aprofile=" + profile.getPath());
+        TestRun run = TestInput.compileAndCheck(checkerDir, files, checkerName, options);
+        assertTrue("compilation failed: " + run.getDiagnostics(), run.getResult());
+        return new String(Files.readAllBytes(profile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCSV() throws IOException {
+        File profile = File.createTempFile("profile", ".csv");
+        try {
+            String[] lines = runWithProfile(profile).split("\r?\n");
+            assertEquals(HEADER, lines[0]);
+
+            // Measurements of Profiled.java and the totals, by phase.
+            Map<String, long[]> unit = new HashMap<String, long[]>();
+            Map<String, long[]> totals = new HashMap<String, long[]>();
+            for (int i = 1; i < lines.length; i++) {
+                String[] fields = lines[i].split(",");
+                assertEquals(lines[i], 10, fields.length);
+                assertEquals("TestChecker", fields[0]);
+                long[] values = new long[7];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = Long.parseLong(fields[j + 3]);
+                }
+                assertTrue(lines[i], values[0] > 0);
+                // The self measurements exclude nested phases.
+                assertTrue(lines[i], values[4] <= values[1]);
+                if (fields[1].endsWith("Profiled.java")) {
+                    unit.put(fields[2], values);
+                } else if (fields[1].equals("*")) {
+                    totals.put(fields[2], values);
+                }
+            }
+
+            for (String phase : new String[] { "check", "annotate", "cfg", "dataflow" }) {
+                assertTrue("no " + phase + " phase", unit.containsKey(phase));
+            }
+            // Every phase of the compilation unit runs while the visitor
+            // checks it, and the annotate phase is only recorded for the
+            // outermost of the nested calls to getAnnotatedType.
+            long check = unit.get("check")[1];
+            long self = 0;
+            for (long[] values : unit.values()) {
+                assertTrue(values[1] <= check);
+                self += values[4];
+            }
+            assertEquals(check, self);
+
+            // There is a single compilation unit besides the stub files,
+            // which do not belong to one.
+            for (Map.Entry<String, long[]> phase : unit.entrySet()) {
+                long[] total = totals.get(phase.getKey());
+                assertTrue(total[0] >= phase.getValue()[0]);
+                assertTrue(total[1] >= phase.getValue()[1]);
+            }
+        } finally {
+            profile.delete();
+        }
+    }
+
+    @Test
+    public void testJSON() throws IOException {
+        File profile = File.createTempFile("profile", ".json");
+        try {
+            String json = runWithProfile(profile);
+            assertTrue(json.trim().startsWith("{") && json.trim().endsWith("}"));
+            int checker = json.indexOf("\"TestChecker\": {");
+            int units = json.indexOf("\"units\": {");
+            assertTrue(json, checker >= 0 && json.indexOf("\"totals\": {") > checker && units > checker);
+
+            // The totals are the sums of the measurements of the units.
+            Map<String, Long> totalCounts = phaseCounts(json.substring(checker, units));
+            Map<String, Long> unitCounts = phaseCounts(json.substring(units));
+            assertTrue(totalCounts.containsKey("check"));
+            assertEquals(totalCounts, unitCounts);
+        } finally {
+            profile.delete();
+        }
+    }
+
+    private static final Pattern PHASE = Pattern.compile(
+            "\"(\\w+)\": \\{\"count\": (\\d+), \"wall_ns\": \\d+, \"cpu_ns\": -?\\d+, "
+            + "\"allocated_bytes\": -?\\d+, \"self_wall_ns\": -?\\d+, "
+            + "\"self_cpu_ns\": -?\\d+, \"self_allocated_bytes\": -?\\d+\\}");
+
+    /** Returns the sum of the counts of every phase in {@code json}. */
+    private static Map<String, Long> phaseCounts(String json) {
+        Map<String, Long> result = new HashMap<String, Long>();
+        Matcher m = PHASE.matcher(json);
+        while (m.find()) {
+            Long count = result.get(m.group(1));
+            result.put(m.group(1), (count == null ? 0 : count) + Long.parseLong(m.group(2)));
+        }
+        return result;
+    }
+}
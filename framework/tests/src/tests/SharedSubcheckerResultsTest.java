@@ -0,0 +1,26 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Runs the MethodVal Checker tests with the types computed by its ClassVal
+ * and Value subcheckers shared with it.
+ */
+public class SharedSubcheckerResultsTest extends ParameterizedCheckerTest {
+
+    public SharedSubcheckerResultsTest(File testFile) {
+        super(testFile,
+                org.checkerframework.common.reflection.MethodValChecker.class,
+                "methodval",
+                "-Anomsgtext", "-AshareSubcheckerResults");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("methodval");
+    }
+}
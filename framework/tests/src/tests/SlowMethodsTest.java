@@ -0,0 +1,98 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import org.checkerframework.framework.test.CheckerTest;
+import org.checkerframework.framework.test.TestInput;
+import org.checkerframework.framework.test.TestRun;
+import org.junit.Test;
+
+/**
+ * Runs the {@link tests.util.TestChecker} with the {@code -AslowMethods}
+ * option and compares the report with the expected output.  The times in
+ * the report and therefore the order of its entries vary, so the statistics
+ * are replaced by "STATS" and the entries are compared in sorted order.
+ */
+public class SlowMethodsTest extends CheckerTest {
+
+    private static final String STATS = "\\d+[.,]\\d ms, \\d+ block visits, \\d+ fix-point iterations, "
+            + "\\d+ transfer function calls, \\d+ store merges";
+
+    private static final List<String> EXPECTED = Arrays.asList(
+            "Profiled.java:9 method Profiled.<init>: STATS",
+            "Profiled.java:13 method Profiled.loop: STATS",
+            "Profiled.java:21 method Profiled.branches: STATS");
+
+    public SlowMethodsTest() {
+        super(tests.util.TestChecker.class, "profile", "-Anomsgtext");
+    }
+
+    /** Compiles Profiled.java and returns the lines of the report. */
+    private List<String> report(String slowMethods) {
+        Iterable<? extends JavaFileObject> files = TestInput.getFileManager()
+                .getJavaFileObjects(new File(checkerDir, "Profiled.java"));
+        List<String> options = new ArrayList<String>(checkerOptions);
+        options.add("-AslowMethods" + slowMethods);
+        TestRun run = TestInput.compileAndCheck(checkerDir, files, checkerName, options);
+        assertTrue("compilation failed: " + run.getDiagnostics(), run.getResult());
+        String report = null;
+        for (Diagnostic<? extends JavaFileObject> d : run) {
+            String message = d.getMessage(null);
+            if (d.getKind() == Diagnostic.Kind.NOTE && message.contains(" slowest flow analyses")) {
+                report = message;
+            }
+        }
+        assertNotNull("no report in " + run.getDiagnostics(), report);
+        return Arrays.asList(report.split("\r?\n"));
+    }
+
+    /** Removes the directory and the statistics from an entry of the report. */
+    private static String normalize(String entry) {
+        entry = entry.trim();
+        entry = entry.substring(Math.max(entry.lastIndexOf('/'), entry.lastIndexOf('\\')) + 1);
+        return entry.replaceAll(STATS + "$", "STATS");
+    }
+
+    /** Returns the time of an entry of the report, in milliseconds. */
+    private static double millis(String entry) {
+        String time = entry.substring(entry.lastIndexOf(": ") + 2, entry.indexOf(" ms"));
+        return Double.parseDouble(time.replace(',', '.'));
+    }
+
+    @Test
+    public void testAllMethods() {
+        List<String> report = report("");
+        assertEquals("TestChecker: 3 slowest flow analyses", report.get(0));
+        List<String> entries = new ArrayList<String>();
+        for (String entry : report.subList(1, report.size())) {
+            entries.add(normalize(entry));
+        }
+        List<String> expected = new ArrayList<String>(EXPECTED);
+        Collections.sort(expected);
+        Collections.sort(entries);
+        assertEquals(expected, entries);
+    }
+
+    @Test
+    public void testLimit() {
+        List<String> report = report("=2");
+        assertEquals("TestChecker: 2 slowest flow analyses", report.get(0));
+        assertEquals(3, report.size());
+        for (String entry : report.subList(1, report.size())) {
+            assertTrue(entry, EXPECTED.contains(normalize(entry)));
+        }
+        // The slowest analysis comes first.
+        assertTrue(millis(report.get(1)) >= millis(report.get(2)));
+    }
+}
@@ -0,0 +1,28 @@
+package tests;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.checkerframework.framework.test.ParameterizedCheckerTest;
+import org.junit.runners.Parameterized.Parameters;
+
+import tests.util.TestChecker;
+
+/**
+ * Runs the Checker Framework tests, using the {@link TestChecker}, with
+ * the results of subtype checks cached.
+ */
+public class SubtypeCacheTest extends ParameterizedCheckerTest {
+
+    public SubtypeCacheTest(File testFile) {
+        super(testFile,
+                tests.util.TestChecker.class,
+                "framework",
+                "-Anomsgtext", "-AsubtypeCache");
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        return testFiles("framework", "all-systems");
+    }
+}
@@ -0,0 +1,91 @@
+package tests.liveness;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+
+import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.common.basetype.BaseTypeVisitor;
+import org.checkerframework.dataflow.analysis.BackwardAnalysis;
+import org.checkerframework.dataflow.analysis.BackwardAnalysisResult;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.framework.qual.TypeQualifiers;
+import org.checkerframework.framework.source.Result;
+import org.checkerframework.javacutil.TreeUtils;
+
+import tests.liveness.qual.LiveVarBottom;
+import tests.liveness.qual.LiveVarTop;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.VariableTree;
+
+/**
+ * A checker used for testing the backward dataflow analysis.  It runs a
+ * liveness analysis ({@link LiveVarTransfer}) on every method and warns
+ * about assignments to local variables that are not live afterwards and
+ * about parameters that are not live at the beginning of the method.
+ *
+ * <p>
+ * This checker should only be used for testing the framework.
+ */
+@TypeQualifiers({ LiveVarTop.class, LiveVarBottom.class })
+public class LiveVarChecker extends BaseTypeChecker {
+    @Override
+    protected BaseTypeVisitor<?> createSourceVisitor() {
+        return new LiveVarVisitor(this);
+    }
+}
+
+class LiveVarVisitor extends BaseTypeVisitor<BaseAnnotatedTypeFactory> {
+
+    /** The result of the liveness analysis of the current method. */
+    protected BackwardAnalysisResult<LiveVarValue, LiveVarStore> liveness;
+
+    public LiveVarVisitor(BaseTypeChecker checker) {
+        super(checker);
+    }
+
+    @Override
+    public Void visitMethod(MethodTree node, Void p) {
+        if (node.getBody() == null) {
+            return super.visitMethod(node, p);
+        }
+        BackwardAnalysis<LiveVarValue, LiveVarStore, LiveVarTransfer> analysis =
+                new BackwardAnalysis<>(checker.getProcessingEnvironment(), new LiveVarTransfer());
+        BackwardAnalysisResult<LiveVarValue, LiveVarStore> result =
+                atypeFactory.performBackwardAnalysis(
+                        new UnderlyingAST.CFGMethod(node, visitorState.getClassTree()), analysis);
+
+        LiveVarStore entryStore = analysis.getEntryStore();
+        if (entryStore != null) {
+            for (VariableTree param : node.getParameters()) {
+                if (!entryStore.isLive(TreeUtils.elementFromDeclaration(param))) {
+                    checker.report(Result.warning("parameter.not.live", param.getName()), param);
+                }
+            }
+        }
+
+        BackwardAnalysisResult<LiveVarValue, LiveVarStore> oldLiveness = liveness;
+        liveness = result;
+        try {
+            return super.visitMethod(node, p);
+        } finally {
+            liveness = oldLiveness;
+        }
+    }
+
+    @Override
+    public Void visitAssignment(AssignmentTree node, Void p) {
+        Element variable = TreeUtils.elementFromUse(node.getVariable());
+        if (liveness != null && variable != null
+                && (variable.getKind() == ElementKind.LOCAL_VARIABLE
+                    || variable.getKind() == ElementKind.PARAMETER)) {
+            LiveVarStore after = liveness.getStoreAfter(node);
+            if (after != null && !after.isLive(variable)) {
+                checker.report(Result.warning("dead.assignment", variable), node);
+            }
+        }
+        return super.visitAssignment(node, p);
+    }
+}
@@ -0,0 +1,82 @@
+package tests.liveness;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+
+import org.checkerframework.dataflow.analysis.FlowExpressions;
+import org.checkerframework.dataflow.analysis.Store;
+
+/**
+ * The store of the liveness analysis: the set of local variables that are
+ * live at a program point.
+ */
+public class LiveVarStore implements Store<LiveVarStore> {
+
+    protected final Set<Element> liveVariables;
+
+    public LiveVarStore() {
+        liveVariables = new HashSet<>();
+    }
+
+    protected LiveVarStore(Set<Element> liveVariables) {
+        this.liveVariables = new HashSet<>(liveVariables);
+    }
+
+    public boolean isLive(Element variable) {
+        return liveVariables.contains(variable);
+    }
+
+    public void addUse(Element variable) {
+        liveVariables.add(variable);
+    }
+
+    public void killDef(Element variable) {
+        liveVariables.remove(variable);
+    }
+
+    @Override
+    public LiveVarStore copy() {
+        return new LiveVarStore(liveVariables);
+    }
+
+    @Override
+    public LiveVarStore leastUpperBound(LiveVarStore other) {
+        LiveVarStore lub = copy();
+        lub.liveVariables.addAll(other.liveVariables);
+        return lub;
+    }
+
+    @Override
+    public boolean canAlias(FlowExpressions.Receiver a,
+            FlowExpressions.Receiver b) {
+        return true;
+    }
+
+    @Override
+    public boolean hasDOToutput() {
+        return false;
+    }
+
+    @Override
+    public String toDOToutput() {
+        return toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LiveVarStore
+                && liveVariables.equals(((LiveVarStore) o).liveVariables);
+    }
+
+    @Override
+    public int hashCode() {
+        return liveVariables.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LiveVarStore(" + liveVariables + ")";
+    }
+}
@@ -0,0 +1,69 @@
+package tests.liveness;
+
+import java.util.List;
+
+import org.checkerframework.dataflow.analysis.BackwardTransferFunction;
+import org.checkerframework.dataflow.analysis.RegularTransferResult;
+import org.checkerframework.dataflow.analysis.TransferInput;
+import org.checkerframework.dataflow.analysis.TransferResult;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.dataflow.cfg.node.AbstractNodeVisitor;
+import org.checkerframework.dataflow.cfg.node.AssignmentNode;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.dataflow.cfg.node.ReturnNode;
+
+/**
+ * The transfer function of the liveness analysis: an assignment to a local
+ * variable kills it, and every other occurrence of a local variable uses
+ * it.  The analysis never visits the target of an assignment, which is an
+ * lvalue.
+ */
+public class LiveVarTransfer
+        extends AbstractNodeVisitor<TransferResult<LiveVarValue, LiveVarStore>,
+                                    TransferInput<LiveVarValue, LiveVarStore>>
+        implements BackwardTransferFunction<LiveVarValue, LiveVarStore> {
+
+    @Override
+    public LiveVarStore initialStore(UnderlyingAST underlyingAST,
+            List<LocalVariableNode> parameters) {
+        return new LiveVarStore();
+    }
+
+    @Override
+    public LiveVarStore initialNormalExitStore(UnderlyingAST underlyingAST,
+            List<ReturnNode> returnNodes) {
+        return new LiveVarStore();
+    }
+
+    @Override
+    public LiveVarStore initialExceptionalExitStore(UnderlyingAST underlyingAST) {
+        return new LiveVarStore();
+    }
+
+    @Override
+    public TransferResult<LiveVarValue, LiveVarStore> visitNode(Node n,
+            TransferInput<LiveVarValue, LiveVarStore> p) {
+        return new RegularTransferResult<>(null, p.getRegularStore());
+    }
+
+    @Override
+    public TransferResult<LiveVarValue, LiveVarStore> visitLocalVariable(
+            LocalVariableNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
+        LiveVarStore store = p.getRegularStore().copy();
+        store.addUse(n.getElement());
+        return new RegularTransferResult<>(null, store);
+    }
+
+    @Override
+    public TransferResult<LiveVarValue, LiveVarStore> visitAssignment(
+            AssignmentNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
+        Node target = n.getTarget();
+        if (!(target instanceof LocalVariableNode)) {
+            return visitNode(n, p);
+        }
+        LiveVarStore store = p.getRegularStore().copy();
+        store.killDef(((LocalVariableNode) target).getElement());
+        return new RegularTransferResult<>(null, store);
+    }
+}
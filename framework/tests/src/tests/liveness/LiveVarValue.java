@@ -0,0 +1,15 @@
+package tests.liveness;
+
+import org.checkerframework.dataflow.analysis.AbstractValue;
+
+/**
+ * The abstract value of the liveness analysis.  The analysis only tracks
+ * stores, so nodes have no value.
+ */
+public class LiveVarValue implements AbstractValue<LiveVarValue> {
+
+    @Override
+    public LiveVarValue leastUpperBound(LiveVarValue other) {
+        return this;
+    }
+}
@@ -0,0 +1,13 @@
+package tests.liveness.qual;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+import org.checkerframework.framework.qual.SubtypeOf;
+import org.checkerframework.framework.qual.TypeQualifier;
+
+@TypeQualifier
+@SubtypeOf({ LiveVarTop.class })
+@Target({ ElementType.TYPE_USE, ElementType.TYPE_PARAMETER })
+public @interface LiveVarBottom {
+}
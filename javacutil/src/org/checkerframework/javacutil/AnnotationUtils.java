@@ -28,6 +28,7 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
@@ -49,6 +50,7 @@ public class AnnotationUtils {
     // handle instantiation of utility classes.
     public static void clear() {
         annotationsFromNames.clear();
+        internedAnnotations.clear();
         annotationMirrorNames.clear();
         annotationClassNames.clear();
     }
@@ -64,6 +66,15 @@ public class AnnotationUtils {
 
     private static final int ANNOTATION_CACHE_SIZE = 500;
 
+    private static final int INTERNED_ANNOTATIONS_SIZE = 2000;
+
+    /**
+     * Canonical instances of the annotations created by the framework,
+     * keyed by their type and values, see {@link #intern}.
+     */
+    private static final Map<List<Object>, AnnotationMirror> internedAnnotations
+        = CollectionUtils.<List<Object>, AnnotationMirror>createLRUCache(INTERNED_ANNOTATIONS_SIZE);
+
     /**
      * Cache names of AnnotationMirrors for faster access.  Values in
      * the map are interned Strings, so they can be compared with ==.
@@ -89,8 +100,9 @@ public class AnnotationUtils {
      * @return an {@link AnnotationMirror} of type {@code} name
      */
     public static AnnotationMirror fromName(Elements elements, CharSequence name) {
-        if (annotationsFromNames.containsKey(name))
-            return annotationsFromNames.get(name);
+        AnnotationMirror cached = annotationsFromNames.get(name);
+        if (cached != null)
+            return cached;
         final DeclaredType annoType = typeFromName(elements, name);
         if (annoType == null)
             return null;
@@ -116,10 +128,80 @@ public class AnnotationUtils {
                 return toString;
             }
         };
+        result = intern(result);
         annotationsFromNames.put(name, result);
         return result;
     }
 
+    /**
+     * Returns a canonical instance of an annotation created by the framework,
+     * so that equal annotations are usually the same object and can be
+     * compared by {@link #areSame} without looking at their values.
+     *
+     * Annotations are interned by their type and the values of their
+     * elements (see {@link #internKey}), not by their string representation,
+     * which does not escape string values and is therefore ambiguous.  The
+     * result is only a best effort: the least recently used annotations are
+     * evicted, and annotations read from source or class files are never
+     * interned.
+     *
+     * @param anno an annotation that was created by the framework
+     * @return the canonical annotation that is the same as anno
+     */
+    public static AnnotationMirror intern(AnnotationMirror anno) {
+        List<Object> key = internKey(anno);
+        AnnotationMirror canonical = internedAnnotations.get(key);
+        if (canonical != null)
+            return canonical;
+        internedAnnotations.put(key, anno);
+        return anno;
+    }
+
+    /**
+     * Returns the key of anno in the intern table: its annotation type and
+     * the explicit values of its elements by element name, with each value
+     * converted by {@link #internKeyValue}.
+     */
+    private static List<Object> internKey(AnnotationMirror anno) {
+        Map<String, Object> values = new HashMap<String, Object>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                anno.getElementValues().entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(),
+                    internKeyValue(entry.getValue().getValue()));
+        }
+        List<Object> key = new ArrayList<Object>(2);
+        key.add(annotationName(anno));
+        key.add(values);
+        return key;
+    }
+
+    /**
+     * Converts the value of an annotation element to an object whose
+     * equals method compares the value structurally: strings, characters
+     * and boxed primitives are kept, arrays become lists of converted
+     * values, nested annotations become their {@link #internKey}, and
+     * classes and enum constants become their names.  The type of the
+     * element determines which of these kinds its values have, so the
+     * names cannot be confused with string values.
+     */
+    private static Object internKeyValue(Object value) {
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<Object>();
+            for (Object element : (List<?>) value) {
+                list.add(internKeyValue(((AnnotationValue) element).getValue()));
+            }
+            return list;
+        } else if (value instanceof AnnotationMirror) {
+            return internKey((AnnotationMirror) value);
+        } else if (value instanceof TypeMirror) {
+            return value.toString();
+        } else if (value instanceof VariableElement) {
+            return ((VariableElement) value).getSimpleName().toString();
+        } else {
+            return value;
+        }
+    }
+
     /**
      * Creates an {@link AnnotationMirror} given by a particular annotation
      * class.
@@ -159,8 +241,9 @@ public class AnnotationUtils {
      * @return the fully-qualified name of an annotation as a Name
      */
     public static final /*@Interned*/ String annotationName(AnnotationMirror annotation) {
-        if (annotationMirrorNames.containsKey(annotation))
-            return annotationMirrorNames.get(annotation);
+        /*@Interned*/ String cached = annotationMirrorNames.get(annotation);
+        if (cached != null)
+            return cached;
 
         final DeclaredType annoType = annotation.getAnnotationType();
         final TypeElement elm = (TypeElement) annoType.asElement();
@@ -181,6 +264,9 @@ public class AnnotationUtils {
      * @return true iff a1 and a2 are the same annotation
      */
     public static boolean areSame(/*@Nullable*/ AnnotationMirror a1, /*@Nullable*/ AnnotationMirror a2) {
+        if (a1 == a2) {
+            return true;
+        }
         if (a1 != null && a2 != null) {
             if (annotationName(a1) != annotationName(a2)) {
                 return false;
@@ -221,10 +307,8 @@ public class AnnotationUtils {
      */
     public static boolean areSameByClass(AnnotationMirror am,
             Class<? extends Annotation> anno) {
-        /*@Interned*/ String canonicalName;
-        if (annotationClassNames.containsKey(anno)) {
-            canonicalName = annotationClassNames.get(anno).intern();
-        } else {
+        /*@Interned*/ String canonicalName = annotationClassNames.get(anno);
+        if (canonicalName == null) {
             canonicalName = anno.getCanonicalName().intern();
             annotationClassNames.put(anno, canonicalName);
         }
@@ -242,6 +326,17 @@ public class AnnotationUtils {
         if (c1.size() == 1)
             return areSame(c1.iterator().next(), c2.iterator().next());
 
+        // Collections holding the same mirrors in the same order are common,
+        // e.g. for copies of a type; avoid creating the sorted sets for them.
+        Iterator<? extends AnnotationMirror> it1 = c1.iterator();
+        Iterator<? extends AnnotationMirror> it2 = c2.iterator();
+        boolean identical = true;
+        while (identical && it1.hasNext()) {
+            identical = it1.next() == it2.next();
+        }
+        if (identical)
+            return true;
+
         Set<AnnotationMirror> s1 = createAnnotationSet();
         Set<AnnotationMirror> s2 = createAnnotationSet();
         s1.addAll(c1);
@@ -312,6 +407,8 @@ public class AnnotationUtils {
     = new Comparator<AnnotationMirror>() {
         @Override
         public int compare(AnnotationMirror a1, AnnotationMirror a2) {
+            if (a1 == a2)
+                return 0;
             String n1 = a1.toString();
             String n2 = a2.toString();
 
@@ -0,0 +1,187 @@
+package org.checkerframework.javacutil;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+
+/**
+ * An index from methods to the methods they override.
+ *
+ * <p>
+ * Finding the methods that a method overrides requires a call to
+ * {@link Elements#overrides} for every method of every supertype.
+ * The index computes the supertypes and the methods (grouped by name)
+ * of a type only once, and the overridden methods of a method only once.
+ * There is one index per compilation, shared by all checkers and their
+ * subcheckers; use {@link #instance(ProcessingEnvironment)} to obtain it.
+ *
+ * <p>
+ * The index only deals with elements; it is the caller's responsibility to
+ * view the overridden methods as members of an (annotated) supertype.
+ */
+public class OverrideIndex {
+
+    /** The key of the index in the compiler context. */
+    protected static final Context.Key<OverrideIndex> overrideIndexKey =
+            new Context.Key<OverrideIndex>();
+
+    protected final Elements elements;
+    protected final Types types;
+
+    /** All (transitive) supertypes of a type, closest supertypes first. */
+    private final Map<TypeElement, List<TypeElement>> supertypes = new HashMap<>();
+
+    /** The methods declared in a type, by simple name. */
+    private final Map<TypeElement, Map<Name, List<ExecutableElement>>> methodsByName = new HashMap<>();
+
+    /**
+     * The methods a method overrides, keyed by the supertype
+     * that declares the overridden method.
+     */
+    private final Map<ExecutableElement, Map<TypeElement, ExecutableElement>> overridden = new HashMap<>();
+
+    protected OverrideIndex(ProcessingEnvironment env) {
+        this.elements = env.getElementUtils();
+        this.types = env.getTypeUtils();
+    }
+
+    /**
+     * Returns the override index of the current compilation.
+     */
+    public static OverrideIndex instance(ProcessingEnvironment env) {
+        Context context = ((JavacProcessingEnvironment) env).getContext();
+        OverrideIndex index = context.get(overrideIndexKey);
+        if (index == null) {
+            index = new OverrideIndex(env);
+            context.put(overrideIndexKey, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the methods that {@code method} overrides, keyed by the
+     * supertype of its enclosing class that declares the overridden method.
+     * For every supertype, at most one method is reported.
+     *
+     * @param method the overriding method
+     * @return an unmodifiable map from supertypes to the methods
+     *         overridden by {@code method}; empty if {@code method}
+     *         does not override anything
+     */
+    public Map<TypeElement, ExecutableElement> overriddenMethods(ExecutableElement method) {
+        Map<TypeElement, ExecutableElement> result = overridden.get(method);
+        if (result != null) {
+            return result;
+        }
+
+        Element enclosing = method.getEnclosingElement();
+        if (!(enclosing instanceof TypeElement)) {
+            result = Collections.emptyMap();
+        } else {
+            TypeElement clazz = (TypeElement) enclosing;
+            Name name = method.getSimpleName();
+            Map<TypeElement, ExecutableElement> found = null;
+            for (TypeElement supertype : supertypes(clazz)) {
+                List<ExecutableElement> candidates = methodsByName(supertype).get(name);
+                if (candidates == null) {
+                    continue;
+                }
+                for (ExecutableElement candidate : candidates) {
+                    if (elements.overrides(method, candidate, clazz)) {
+                        if (found == null) {
+                            found = new LinkedHashMap<>();
+                        }
+                        found.put(supertype, candidate);
+                        break;
+                    }
+                }
+            }
+            result = found == null
+                    ? Collections.<TypeElement, ExecutableElement>emptyMap()
+                    : Collections.unmodifiableMap(found);
+        }
+        overridden.put(method, result);
+        return result;
+    }
+
+    /**
+     * Returns the method of {@code supertype} that {@code method} overrides,
+     * or {@code null} if there is none.
+     */
+    public /*@Nullable*/ ExecutableElement overriddenMethod(ExecutableElement method,
+            TypeElement supertype) {
+        return overriddenMethods(method).get(supertype);
+    }
+
+    /**
+     * Returns all supertypes of {@code type}, in breadth-first order.
+     * Interfaces have {@code java.lang.Object} as a supertype.
+     */
+    public List<TypeElement> supertypes(TypeElement type) {
+        List<TypeElement> result = supertypes.get(type);
+        if (result != null) {
+            return result;
+        }
+
+        Set<TypeElement> found = new LinkedHashSet<>();
+        List<TypeElement> worklist = new ArrayList<>();
+        worklist.add(type);
+        for (int i = 0; i < worklist.size(); i++) {
+            TypeElement current = worklist.get(i);
+            for (TypeMirror direct : types.directSupertypes(current.asType())) {
+                if (direct.getKind() != TypeKind.DECLARED) {
+                    continue;
+                }
+                TypeElement elem = (TypeElement) ((DeclaredType) direct).asElement();
+                if (found.add(elem)) {
+                    worklist.add(elem);
+                }
+            }
+        }
+        result = Collections.unmodifiableList(new ArrayList<>(found));
+        supertypes.put(type, result);
+        return result;
+    }
+
+    private Map<Name, List<ExecutableElement>> methodsByName(TypeElement type) {
+        Map<Name, List<ExecutableElement>> result = methodsByName.get(type);
+        if (result != null) {
+            return result;
+        }
+        result = new HashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            List<ExecutableElement> sameName = result.get(method.getSimpleName());
+            if (sameName == null) {
+                sameName = new ArrayList<>(1);
+                result.put(method.getSimpleName(), sameName);
+            }
+            sameName.add(method);
+        }
+        methodsByName.put(type, result);
+        return result;
+    }
+}